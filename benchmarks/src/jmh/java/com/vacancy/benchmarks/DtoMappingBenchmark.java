@@ -0,0 +1,76 @@
+package com.vacancy.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.vacancy.user.model.User;
+import com.vacancy.user.model.dto.UserDtoOut;
+import com.vacancy.user.model.dto.UserMapper;
+import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyMapper;
+
+/**
+ * One listing page of entities to response DTOs: the ModelMapper setups the services used to have
+ * (the STRICT bean of vacancy-service, the default {@code new ModelMapper()} of the reactive controllers)
+ * against the generated mappers that replaced them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMappingBenchmark {
+
+    private ModelMapper strictModelMapper;
+    private ModelMapper defaultModelMapper;
+    private VacancyMapper vacancyMapper;
+    private UserMapper userMapper;
+
+    private List<Vacancy> vacancies;
+    private List<User> users;
+
+    @Setup
+    public void setUp() {
+        strictModelMapper = new ModelMapper();
+        strictModelMapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setAmbiguityIgnored(true)
+                .setSkipNullEnabled(true);
+        defaultModelMapper = new ModelMapper();
+        vacancyMapper = Mappers.getMapper(VacancyMapper.class);
+        userMapper = Mappers.getMapper(UserMapper.class);
+
+        vacancies = Fixtures.vacancies(Fixtures.PAGE_SIZE);
+        users = Fixtures.users(Fixtures.PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<VacancyDtoOut> vacancyPageModelMapperStrict() {
+        return vacancies.stream().map(vacancy -> strictModelMapper.map(vacancy, VacancyDtoOut.class)).toList();
+    }
+
+    @Benchmark
+    public List<VacancyDtoOut> vacancyPageMapStruct() {
+        return vacancyMapper.toDto(vacancies);
+    }
+
+    @Benchmark
+    public List<UserDtoOut> userPageModelMapperDefault() {
+        return users.stream().map(user -> defaultModelMapper.map(user, UserDtoOut.class)).toList();
+    }
+
+    @Benchmark
+    public List<UserDtoOut> userPageMapStruct() {
+        return userMapper.toDto(users);
+    }
+}
@@ -0,0 +1,41 @@
+package com.vacancy.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.vacancy.user.model.User;
+import com.vacancy.vacancy.model.Vacancy;
+
+// deterministic data, so results of two runs are comparable
+final class Fixtures {
+
+    static final int PAGE_SIZE = 50;
+
+    private Fixtures() {
+    }
+
+    static List<Vacancy> vacancies(int count) {
+        List<Vacancy> vacancies = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Vacancy vacancy = new Vacancy("Java Developer " + i,
+                    "Develop and support Java services, code review, on-call rotation " + i);
+            vacancy.setId(i);
+            vacancy.setOrganizationId((long) (i % 20 + 1));
+            vacancy.setSalary(80000 + i * 1000);
+            vacancy.setCity(i % 2 == 0 ? "Moscow" : "Kazan");
+            vacancies.add(vacancy);
+        }
+        return vacancies;
+    }
+
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            User user = new User("user" + i, "user" + i + "@example.com");
+            user.setId(i);
+            user.setCvLink("https://cv.example.com/user" + i);
+            users.add(user);
+        }
+        return users;
+    }
+}
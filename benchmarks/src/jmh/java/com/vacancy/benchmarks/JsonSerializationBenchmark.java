@@ -0,0 +1,73 @@
+package com.vacancy.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.vacancy.user.model.User;
+import com.vacancy.user.model.dto.UserDtoOut;
+import com.vacancy.user.model.dto.UserMapper;
+import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyMapper;
+
+/**
+ * Response bodies of one listing page, written the way the message converters do it: an ObjectMapper with
+ * Spring's defaults and a writer per element type. The entity list is what vacancy-service used to return.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+
+    private ObjectWriter vacancyEntityWriter;
+    private ObjectWriter vacancyDtoWriter;
+    private ObjectWriter userDtoWriter;
+
+    private List<Vacancy> vacancies;
+    private List<VacancyDtoOut> vacancyDtos;
+    private List<UserDtoOut> userDtos;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        vacancyEntityWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Vacancy.class));
+        vacancyDtoWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, VacancyDtoOut.class));
+        userDtoWriter = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, UserDtoOut.class));
+
+        vacancies = Fixtures.vacancies(Fixtures.PAGE_SIZE);
+        vacancyDtos = Mappers.getMapper(VacancyMapper.class).toDto(vacancies);
+        List<User> users = Fixtures.users(Fixtures.PAGE_SIZE);
+        userDtos = Mappers.getMapper(UserMapper.class).toDto(users);
+    }
+
+    @Benchmark
+    public byte[] vacancyEntityPage() throws JsonProcessingException {
+        return vacancyEntityWriter.writeValueAsBytes(vacancies);
+    }
+
+    @Benchmark
+    public byte[] vacancyDtoPage() throws JsonProcessingException {
+        return vacancyDtoWriter.writeValueAsBytes(vacancyDtos);
+    }
+
+    @Benchmark
+    public byte[] userDtoPage() throws JsonProcessingException {
+        return userDtoWriter.writeValueAsBytes(userDtos);
+    }
+}
@@ -0,0 +1,46 @@
+package com.vacancy.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+/**
+ * Cost of a not-found answer. Most of it is filling in the stack trace, which grows with the depth
+ * the exception is created at: a request goes through filters, Spring MVC and service proxies first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RequestExceptionBenchmark {
+
+    @Param({ "10", "150" })
+    public int stackDepth;
+
+    @Benchmark
+    public RequestException construct() {
+        return atDepth(stackDepth);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> constructAndRender() {
+        return atDepth(stackDepth).responseEntity();
+    }
+
+    private static RequestException atDepth(int depth) {
+        if (depth > 0) {
+            return atDepth(depth - 1);
+        }
+        return new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена");
+    }
+}
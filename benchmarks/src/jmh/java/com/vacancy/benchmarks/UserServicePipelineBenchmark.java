@@ -0,0 +1,85 @@
+package com.vacancy.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.vacancy.user.model.User;
+import com.vacancy.user.repository.UserRepository;
+import com.vacancy.user.service.UserService;
+import com.vacancy.user.service.UserServiceImpl;
+
+/**
+ * The Reactor pipelines of {@link UserServiceImpl} over an in-memory repository: what is left is the cost of
+ * the operators and of the hop to boundedElastic, the part a database round trip would hide in a real request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserServicePipelineBenchmark {
+
+    private static final int TOTAL_USERS = 10_000;
+
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        userService = new UserServiceImpl(inMemoryRepository(Fixtures.users(TOTAL_USERS)), null);
+    }
+
+    @Benchmark
+    public User getUserById() {
+        return userService.getUserById(TOTAL_USERS / 2).block();
+    }
+
+    @Benchmark
+    public List<User> getAllUsers() {
+        return userService.getAllUsers(10, Fixtures.PAGE_SIZE).collectList().block();
+    }
+
+    @Benchmark
+    public List<User> getUsersAfter() {
+        return userService.getUsersAfter(TOTAL_USERS / 2, Fixtures.PAGE_SIZE).collectList().block();
+    }
+
+    // 20 keyset pages of 500, fetched one after another by expand
+    @Benchmark
+    public Long exportUsers() {
+        return userService.exportUsers().count().block();
+    }
+
+    // users are sorted by id and ids are 1..n, so an id is also its position
+    private static UserRepository inMemoryRepository(List<User> users) {
+        return (UserRepository) Proxy.newProxyInstance(UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> {
+                        long id = (Long) args[0];
+                        yield id >= 1 && id <= users.size() ? Optional.of(users.get((int) id - 1)) : Optional.empty();
+                    }
+                    case "findAllBy" -> slice(users, (Pageable) args[0], (int) ((Pageable) args[0]).getOffset());
+                    case "findByIdGreaterThan" -> slice(users, (Pageable) args[1], (int) (long) (Long) args[0]);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryUserRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static Slice<User> slice(List<User> users, Pageable pageable, int from) {
+        int start = Math.min(from, users.size());
+        int end = Math.min(start + pageable.getPageSize(), users.size());
+        return new SliceImpl<>(users.subList(start, end), pageable, end < users.size());
+    }
+}
@@ -0,0 +1,62 @@
+package com.vacancy.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.options;
+
+import java.time.Duration;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+
+/**
+ * In-process stand-ins for organization-service and user-service. Every id exists, answers take a log-normal
+ * delay around the configured median (a fixed one when sigma is 0).
+ */
+final class Downstreams implements AutoCloseable {
+
+    private final WireMockServer server;
+
+    Downstreams(Duration organizationLatency, Duration userLatency, double sigma) {
+        server = new WireMockServer(options()
+                .bindAddress("127.0.0.1")
+                .dynamicPort()
+                .containerThreads(200)
+                // delays are served from a scheduler instead of holding a Jetty thread each
+                .asynchronousResponseEnabled(true)
+                .asynchronousResponseThreads(50)
+                .disableRequestJournal());
+        server.start();
+
+        server.stubFor(get(urlPathMatching("/api/organizations/\\d+"))
+                .willReturn(delayed(okJson("{\"id\":1,\"nickname\":\"org\",\"email\":\"org@example.com\"}"),
+                        organizationLatency, sigma)));
+        // bulk imports check organizations through the batch lookup, every requested id is echoed back
+        server.stubFor(post(urlPathEqualTo("/api/organizations/batch"))
+                .willReturn(delayed(okJson("[{{#each (parseJson request.body) as |id|}}{{#unless @first}},{{/unless}}"
+                        + "{\"id\":{{id}},\"nickname\":\"org\",\"email\":\"org@example.com\"}{{/each}}]")
+                        .withTransformers("response-template"), organizationLatency, sigma)));
+        server.stubFor(get(urlPathMatching("/api/users/\\d+"))
+                .willReturn(delayed(okJson("{\"id\":1,\"nickname\":\"user\",\"email\":\"user@example.com\"}"),
+                        userLatency, sigma)));
+    }
+
+    String baseUrl() {
+        return server.baseUrl();
+    }
+
+    private static ResponseDefinitionBuilder delayed(ResponseDefinitionBuilder response, Duration median,
+            double sigma) {
+        return sigma > 0
+                ? response.withLogNormalRandomDelay(median.toMillis(), sigma)
+                : response.withFixedDelay((int) median.toMillis());
+    }
+
+    @Override
+    public void close() {
+        server.stop();
+    }
+}
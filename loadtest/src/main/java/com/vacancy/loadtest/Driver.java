@@ -0,0 +1,108 @@
+package com.vacancy.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-model load: requests start at a fixed rate whether or not earlier ones have finished, each on its
+ * own virtual thread. Latency is measured from the moment a request was due, not from when it was sent,
+ * so a stalled service shows up in the percentiles instead of silently lowering the request rate.
+ */
+final class Driver {
+
+    private final HttpClient client;
+    private final Endpoint.Target target;
+    private final int rate;
+    private final Endpoint[] schedule;
+    private final SplittableRandom random;
+
+    Driver(HttpClient client, Endpoint.Target target, int rate, Map<Endpoint, Integer> mix, long seed) {
+        this.client = client;
+        this.target = target;
+        this.rate = rate;
+        this.random = new SplittableRandom(seed);
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        this.schedule = new Endpoint[total];
+        int i = 0;
+        for (Map.Entry<Endpoint, Integer> weight : mix.entrySet()) {
+            for (int n = 0; n < weight.getValue(); n++) {
+                schedule[i++] = weight.getKey();
+            }
+        }
+    }
+
+    Result run(Duration duration) throws InterruptedException {
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : schedule) {
+            stats.computeIfAbsent(endpoint, e -> new Stats());
+        }
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long maxLag = 0;
+
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else {
+                    maxLag = Math.max(maxLag, -wait);
+                }
+                Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+                long dueAt = due;
+                // split on the scheduling thread: the parameters of every request follow from the seed
+                SplittableRandom params = random.split();
+                requests.execute(() -> call(endpoint, dueAt, params, stats.get(endpoint)));
+            }
+            // close() waits for the requests still in flight
+        }
+        return new Result(stats, Duration.ofNanos(System.nanoTime() - start), Duration.ofNanos(maxLag));
+    }
+
+    private void call(Endpoint endpoint, long due, SplittableRandom params, Stats stats) {
+        int status;
+        try {
+            status = client.send(endpoint.request(target, params).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            // timeouts and refused connections
+            status = -1;
+        }
+        stats.record(status, System.nanoTime() - due);
+    }
+
+    record Result(Map<Endpoint, Stats> stats, Duration elapsed, Duration maxSchedulingLag) {
+    }
+
+    static final class Stats {
+        // microseconds, up to a minute at 3 significant digits
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder errors = new LongAdder();
+        final Map<Integer, LongAdder> errorStatuses = new ConcurrentHashMap<>();
+
+        void record(int status, long nanos) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+            if (status < 200 || status >= 400) {
+                errors.increment();
+                errorStatuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+            }
+        }
+    }
+}
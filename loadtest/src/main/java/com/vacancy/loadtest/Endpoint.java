@@ -0,0 +1,112 @@
+package com.vacancy.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.random.RandomGenerator;
+
+/**
+ * The calls the load test mixes. Ids are drawn uniformly: vacancies from the seeded ones, organizations and
+ * users from ranges wide enough that the client caches of vacancy-service keep missing.
+ */
+enum Endpoint {
+
+    GET("GET /api/vacancies/{id}") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            return target.get("/api/vacancies/" + target.vacancyId(random));
+        }
+    },
+    LIST("GET /api/vacancies") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            int pages = Math.max(1, target.vacancyIds().length / PAGE_SIZE);
+            return target.get("/api/vacancies?size=" + PAGE_SIZE + "&page=" + random.nextInt(pages));
+        }
+    },
+    SEARCH("GET /api/vacancies/search") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            return target.get("/api/vacancies/search?size=" + PAGE_SIZE + "&q="
+                    + Target.LANGUAGES[random.nextInt(Target.LANGUAGES.length)]);
+        }
+    },
+    CREATE("POST /api/vacancies") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            return target.post("/api/vacancies", target.vacancyJson(random));
+        }
+    },
+    RESPOND("PUT /api/vacancies/responses") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            return target.put("/api/vacancies/responses?vacancyId=" + target.vacancyId(random)
+                    + "&userId=" + target.userId(random));
+        }
+    },
+    RESPONSES("GET /api/vacancies/responses") {
+        @Override
+        HttpRequest.Builder request(Target target, RandomGenerator random) {
+            return target.get("/api/vacancies/responses?size=" + PAGE_SIZE + "&vacancyId=" + target.vacancyId(random));
+        }
+    };
+
+    static final int PAGE_SIZE = 20;
+
+    final String label;
+
+    Endpoint(String label) {
+        this.label = label;
+    }
+
+    abstract HttpRequest.Builder request(Target target, RandomGenerator random);
+
+    static Endpoint byName(String name) {
+        return valueOf(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * The running vacancy-service and the ids the requests are made up from.
+     */
+    record Target(String baseUri, long[] vacancyIds, int organizations, int users, Duration timeout) {
+
+        static final String[] LANGUAGES = { "java", "kotlin", "python", "go", "rust", "scala" };
+
+        long vacancyId(RandomGenerator random) {
+            return vacancyIds[random.nextInt(vacancyIds.length)];
+        }
+
+        long organizationId(RandomGenerator random) {
+            return 1 + random.nextInt(organizations);
+        }
+
+        long userId(RandomGenerator random) {
+            return 1 + random.nextInt(users);
+        }
+
+        String vacancyJson(RandomGenerator random) {
+            String language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+            return "{\"title\":\"" + language + " developer\",\"description\":\"Backend development in "
+                    + language + "\",\"salary\":" + (50000 + random.nextInt(200) * 1000)
+                    + ",\"city\":\"Moscow\",\"organization_id\":" + organizationId(random) + "}";
+        }
+
+        HttpRequest.Builder get(String path) {
+            return builder(path).GET();
+        }
+
+        HttpRequest.Builder post(String path, String json) {
+            return builder(path).header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json));
+        }
+
+        HttpRequest.Builder put(String path) {
+            return builder(path).PUT(HttpRequest.BodyPublishers.noBody());
+        }
+
+        private HttpRequest.Builder builder(String path) {
+            return HttpRequest.newBuilder(URI.create(baseUri + path)).timeout(timeout);
+        }
+    }
+}
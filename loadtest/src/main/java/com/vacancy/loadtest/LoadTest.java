@@ -0,0 +1,182 @@
+package com.vacancy.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.vacancy.VacancyServiceApplication;
+
+/**
+ * Boots vacancy-service in this JVM against a throwaway Postgres and WireMock stand-ins for its downstream
+ * services, seeds vacancies, then drives a request mix at a fixed rate and prints throughput and latency
+ * percentiles per endpoint. Needs nothing but a local Docker daemon with the Postgres image (and the Testcontainers
+ * ryuk image, or {@code TESTCONTAINERS_RYUK_DISABLED=true}) already pulled.
+ *
+ * <pre>gradle run --args="--rate=300 --duration=2m --organization-latency=100ms --service.admission.enabled=false"</pre>
+ *
+ * Exits with 1 when the error rate of the measured phase is above {@code --max-error-rate}.
+ */
+public final class LoadTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        // same workaround as the service's Testcontainers tests for newer Docker engines
+        System.setProperty("api.version", "1.44");
+        // exit only after everything is closed, the service and WireMock leave non-daemon threads behind
+        System.exit(run(config) ? 0 : 1);
+    }
+
+    private static boolean run(LoadTestConfig config) throws Exception {
+        try (PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(config.postgresImage());
+                Downstreams downstreams = new Downstreams(config.organizationLatency(), config.userLatency(),
+                        config.latencySigma())) {
+            postgres.start();
+            try (ConfigurableApplicationContext service = startService(config, postgres, downstreams)) {
+                String baseUri = "http://127.0.0.1:" + service.getEnvironment().getProperty("local.server.port");
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(5))
+                        .build();
+
+                long[] vacancyIds = seed(client, baseUri, config);
+                Endpoint.Target target = new Endpoint.Target(baseUri, vacancyIds, config.organizations(),
+                        config.users(), REQUEST_TIMEOUT);
+                Driver driver = new Driver(client, target, config.rate(), config.mix(), config.seed());
+
+                System.out.printf("%nWarming up for %s at %d req/s%n", config.warmup(), config.rate());
+                driver.run(config.warmup());
+                System.out.printf("Measuring for %s at %d req/s%n", config.duration(), config.rate());
+                Driver.Result result = driver.run(config.duration());
+
+                double errorRate = report(result, config, System.out);
+                if (errorRate > config.maxErrorRate()) {
+                    System.out.printf("Error rate %.2f%% is above %.2f%%%n", errorRate * 100, config.maxErrorRate() * 100);
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+
+    private static ConfigurableApplicationContext startService(LoadTestConfig config,
+            PostgreSQLContainer<?> postgres, Downstreams downstreams) {
+        // command line arguments, so they win over the ${DB_URL}-style placeholders of application.yml
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.cloud.config.enabled=false",
+                "--eureka.client.enabled=false",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword(),
+                "--spring.flyway.url=" + postgres.getJdbcUrl(),
+                "--spring.flyway.user=" + postgres.getUsername(),
+                "--spring.flyway.password=" + postgres.getPassword(),
+                "--spring.cloud.openfeign.client.config.organization-service.url=" + downstreams.baseUrl(),
+                "--spring.cloud.openfeign.client.config.user-service.url=" + downstreams.baseUrl(),
+                "--spring.threads.virtual.enabled=" + config.virtualThreads(),
+                "--spring.output.ansi.enabled=NEVER",
+                "--logging.level.root=WARN"));
+        args.addAll(config.serviceArgs());
+        return new SpringApplicationBuilder(VacancyServiceApplication.class).run(args.toArray(String[]::new));
+    }
+
+    // one NDJSON bulk import, the ids of the created vacancies come back line by line
+    private static long[] seed(HttpClient client, String baseUri, LoadTestConfig config)
+            throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(config.seed());
+        Endpoint.Target ids = new Endpoint.Target(baseUri, new long[0], config.organizations(), config.users(),
+                REQUEST_TIMEOUT);
+        StringJoiner body = new StringJoiner("\n");
+        for (int i = 0; i < config.vacancies(); i++) {
+            body.add(ids.vacancyJson(random));
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUri + "/api/vacancies/bulk"))
+                .header("Content-Type", "application/x-ndjson")
+                .timeout(Duration.ofMinutes(5))
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Long> created = new ArrayList<>();
+        for (String line : response.body().split("\n")) {
+            JsonNode result = objectMapper.readTree(line);
+            if (result.hasNonNull("id")) {
+                created.add(result.get("id").asLong());
+            }
+        }
+        if (created.isEmpty()) {
+            throw new IllegalStateException("Seeding created no vacancies: " + response.body());
+        }
+        System.out.printf("Seeded %d vacancies%n", created.size());
+        return created.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static double report(Driver.Result result, LoadTestConfig config, PrintStream out) throws IOException {
+        double seconds = result.elapsed().toNanos() / 1e9;
+        long total = 0;
+        long errors = 0;
+
+        out.printf("%n%-32s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Endpoint, Driver.Stats> entry : result.stats().entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            long count = latency.getTotalCount();
+            long failed = entry.getValue().errors.sum();
+            total += count;
+            errors += failed;
+            out.printf("%-32s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n", entry.getKey().label, count, failed,
+                    count / seconds, millis(latency, 50), millis(latency, 99), millis(latency, 99.9),
+                    latency.getMaxValue() / 1000.0);
+            if (failed > 0) {
+                out.printf("%-32s statuses %s (-1: no response)%n", "", entry.getValue().errorStatuses.entrySet().stream()
+                        .map(status -> status.getKey() + "x" + status.getValue().sum())
+                        .collect(Collectors.joining(", ")));
+            }
+            if (config.output() != null) {
+                Files.createDirectories(config.output());
+                try (PrintStream file = new PrintStream(
+                        Files.newOutputStream(config.output().resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm")))) {
+                    latency.outputPercentileDistribution(file, 1000.0);
+                }
+            }
+        }
+        out.printf("%-32s %9d %7d %9.1f%n", "total", total, errors, total / seconds);
+        if (result.maxSchedulingLag().toMillis() > 10) {
+            out.printf("The driver fell up to %d ms behind schedule, the measured rate is below the requested one%n",
+                    result.maxSchedulingLag().toMillis());
+        }
+        return total == 0 ? 0 : (double) errors / total;
+    }
+
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+}
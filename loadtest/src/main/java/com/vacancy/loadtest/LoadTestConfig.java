@@ -0,0 +1,94 @@
+package com.vacancy.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Command line of the load test, every option is {@code --name=value}. Options starting with
+ * {@code --service.} are passed on to vacancy-service without the prefix.
+ */
+record LoadTestConfig(
+        int rate,
+        Duration duration,
+        Duration warmup,
+        Map<Endpoint, Integer> mix,
+        long seed,
+        int vacancies,
+        int organizations,
+        int users,
+        Duration organizationLatency,
+        Duration userLatency,
+        double latencySigma,
+        boolean virtualThreads,
+        String postgresImage,
+        double maxErrorRate,
+        Path output,
+        List<String> serviceArgs) {
+
+    private static final String DEFAULT_MIX = "get:30,list:25,search:5,create:10,respond:20,responses:10";
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        List<String> serviceArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, arg.indexOf('='));
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (name.startsWith("service.")) {
+                serviceArgs.add("--" + name.substring("service.".length()) + "=" + value);
+            } else {
+                options.put(name, value);
+            }
+        }
+
+        LoadTestConfig config = new LoadTestConfig(
+                Integer.parseInt(take(options, "rate", "200")),
+                duration(take(options, "duration", "60s")),
+                duration(take(options, "warmup", "15s")),
+                mix(take(options, "mix", DEFAULT_MIX)),
+                Long.parseLong(take(options, "seed", "42")),
+                Integer.parseInt(take(options, "vacancies", "2000")),
+                Integer.parseInt(take(options, "organizations", "1000")),
+                Integer.parseInt(take(options, "users", "100000")),
+                duration(take(options, "organization-latency", "50ms")),
+                duration(take(options, "user-latency", "20ms")),
+                Double.parseDouble(take(options, "latency-sigma", "0.3")),
+                Boolean.parseBoolean(take(options, "virtual-threads", "false")),
+                take(options, "postgres-image", "postgres:17"),
+                Double.parseDouble(take(options, "max-error-rate", "0.01")),
+                options.containsKey("output") ? Path.of(take(options, "output", null)) : null,
+                List.copyOf(serviceArgs));
+        if (!options.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + options.keySet());
+        }
+        return config;
+    }
+
+    private static String take(Map<String, String> options, String name, String defaultValue) {
+        String value = options.remove(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private static Duration duration(String value) {
+        return DurationStyle.detectAndParse(value);
+    }
+
+    // "get:30,list:25" -> weights per endpoint, endpoints left out are not called
+    private static Map<Endpoint, Integer> mix(String value) {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        for (String part : value.split(",")) {
+            String[] weight = part.trim().split(":");
+            mix.put(Endpoint.byName(weight[0]), Integer.parseInt(weight[1]));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,52 @@
+package com.vacancy.organization.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Subscriptions for one key that arrive while a load is running share that load's Mono instead of starting
+ * their own query; its value, emptiness or error reaches all of them. A finished load is forgotten, the next
+ * subscription starts a new one. Counts loads in {@code singleflight.loads} with outcome "executed" or
+ * "coalesced".
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = meterRegistry.counter("singleflight.loads", "name", name, "outcome", "executed");
+        this.coalesced = meterRegistry.counter("singleflight.loads", "name", name, "outcome", "coalesced");
+    }
+
+    public Mono<V> run(K key, Supplier<Mono<V>> load) {
+        return Mono.defer(() -> {
+            Mono<V> running = inFlight.get(key);
+            if (running != null) {
+                coalesced.increment();
+                return running;
+            }
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            // share() subscribes to the query once and cannot be cancelled, a subscriber that goes away
+            // does not abort the load for the others
+            Mono<V> mine = Mono.defer(load)
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .share();
+            self.set(mine);
+            running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                coalesced.increment();
+                return running;
+            }
+            executed.increment();
+            return mine;
+        });
+    }
+}
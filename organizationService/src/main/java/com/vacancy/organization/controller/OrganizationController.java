@@ -1,7 +1,10 @@
 package com.vacancy.organization.controller;
 
-import org.modelmapper.ModelMapper;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,13 +12,16 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 import com.vacancy.organization.model.Organization;
 import com.vacancy.organization.model.dto.OrganizationDtoIn;
 import com.vacancy.organization.model.dto.OrganizationDtoOut;
+import com.vacancy.organization.model.dto.OrganizationMapper;
 import com.vacancy.organization.service.OrganizationService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -30,41 +36,82 @@ import reactor.core.publisher.Mono;
 public class OrganizationController {
 
     private final OrganizationService organizationService;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final OrganizationMapper organizationMapper;
 
-    @Operation(summary = "Получить все организации")
+    @Operation(summary = "Получить все организации",
+            description = "С параметром after (id последней полученной организации) работает в режиме курсора")
     @GetMapping
-    public Flux<OrganizationDtoOut> getAllOrganizations(
+    public Mono<ResponseEntity<List<OrganizationDtoOut>>> getAllOrganizations(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
-        return organizationService.getAllOrganizations(page, size)
-                .map(org -> modelMapper.map(org, OrganizationDtoOut.class));
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long after) {
+        Flux<Organization> organizations = after != null
+                ? organizationService.getOrganizationsAfter(after, size)
+                : organizationService.getAllOrganizations(page, size);
+        return organizations
+                .collectList()
+                .map(list -> ResponseEntity.ok()
+                        .eTag(ETags.weak(list, Organization::getId, Organization::getVersion))
+                        .body(list.stream().map(organizationMapper::toDto).toList()));
+    }
+
+    @Operation(summary = "Выгрузить все организации",
+            description = "Все организации в формате NDJSON (по одной на строку), отсортированные по id")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<OrganizationDtoOut> exportOrganizations() {
+        return organizationService.exportOrganizations()
+                .map(organizationMapper::toDto);
     }
 
-    @Operation(summary = "Получить организацию по id")
+    @Operation(summary = "Получить организацию по id", description = "Возвращает ETag с версией организации, "
+            + "на запрос с актуальным If-None-Match отвечает 304")
     @GetMapping("/{id}")
-    public Mono<ResponseEntity<OrganizationDtoOut>> getOrganizationById(@PathVariable Long id) {
-        return organizationService.getOrganizationById(id)
-                .map(org -> modelMapper.map(org, OrganizationDtoOut.class))
-                .map(ResponseEntity::ok);
+    public Mono<ResponseEntity<OrganizationDtoOut>> getOrganizationById(@PathVariable Long id,
+            ServerWebExchange exchange) {
+        Mono<ResponseEntity<OrganizationDtoOut>> organization = organizationService.getOrganizationById(id)
+                .map(org -> ResponseEntity.ok()
+                        .eTag(ETags.strong(org.getVersion()))
+                        .body(organizationMapper.toDto(org)));
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()) {
+            return organization;
+        }
+        // the version alone decides a 304, the organization is loaded only when it has changed
+        return organizationService.getOrganizationVersion(id)
+                .flatMap(version -> exchange.checkNotModified(ETags.strong(version))
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(ETags.strong(version))
+                                .<OrganizationDtoOut>build())
+                        : organization);
+    }
+
+    @Operation(summary = "Получить организации по списку id",
+            description = "До 500 id в теле запроса, несуществующие id пропускаются")
+    @PostMapping("/batch")
+    public Flux<OrganizationDtoOut> getOrganizationsByIds(@RequestBody List<Long> ids) {
+        return organizationService.getOrganizationsByIds(ids)
+                .map(organizationMapper::toDto);
     }
 
     @Operation(summary = "Создать организацию")
     @PostMapping
     public Mono<ResponseEntity<OrganizationDtoOut>> createOrganization(
             @RequestBody @Valid OrganizationDtoIn organization) {
-        return organizationService.createOrganization(modelMapper.map(organization, Organization.class))
-                .map(org -> modelMapper.map(org, OrganizationDtoOut.class))
+        return organizationService.createOrganization(organizationMapper.toEntity(organization))
+                .map(organizationMapper::toDto)
                 .map(org -> ResponseEntity.status(HttpStatus.CREATED).body(org));
     }
 
-    @Operation(summary = "Обновить организацию")
+    @Operation(summary = "Обновить организацию",
+            description = "С заголовком If-Match обновляет только одну из указанных версий, иначе отвечает 412")
     @PutMapping("/{id}")
     public Mono<ResponseEntity<OrganizationDtoOut>> updateOrganization(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody @Valid OrganizationDtoIn organization) {
-        return organizationService.updateOrganization(id, modelMapper.map(organization, Organization.class))
-                .map(org -> modelMapper.map(org, OrganizationDtoOut.class))
-                .map(ResponseEntity::ok);
+        return organizationService.updateOrganization(id, organizationMapper.toEntity(organization),
+                        ETags.expectedVersions(ifMatch))
+                .map(org -> ResponseEntity.ok()
+                        .eTag(ETags.strong(org.getVersion()))
+                        .body(organizationMapper.toDto(org)));
     }
 
     @Operation(summary = "Удалить организацию")
@@ -1,6 +1,7 @@
 package com.vacancy.organization.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 import jakarta.validation.constraints.Email;
@@ -26,6 +27,10 @@ public class Organization {
     @Size(max = 100, message = "Email не может превышать 100 символов")
     private String email;
 
+    // null until the first insert, then checked and bumped by every update
+    @Version
+    private Long version;
+
     public void updateWithOther(Organization other) {
         this.setNickname(other.getNickname());
         this.setEmail(other.getEmail());
@@ -0,0 +1,23 @@
+package com.vacancy.organization.model.dto;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import com.vacancy.organization.model.Organization;
+
+// the implementation is generated at compile time, a field added on one side only fails the build
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface OrganizationMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Organization toEntity(OrganizationDtoIn dto);
+
+    OrganizationDtoOut toDto(Organization organization);
+
+    List<OrganizationDtoOut> toDto(List<Organization> organizations);
+}
@@ -1,11 +1,26 @@
 package com.vacancy.organization.repository;
 
 import com.vacancy.organization.model.Organization;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Repository
 public interface OrganizationRepository extends R2dbcRepository<Organization, Long> {
     Mono<Organization> findOrganizationByEmail(String email);
+
+    // LIMIT/OFFSET is rendered into the SQL, only the requested page leaves the database
+    Flux<Organization> findAllBy(Pageable pageable);
+
+    Flux<Organization> findByIdGreaterThan(Long id, Pageable pageable);
+
+    // rows are decoded as they are requested, the driver stops reading the socket when demand runs out
+    Flux<Organization> findAllBy(Sort sort);
+
+    @Query("SELECT version FROM organization WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
 }
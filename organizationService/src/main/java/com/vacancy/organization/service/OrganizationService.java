@@ -1,5 +1,10 @@
 package com.vacancy.organization.service;
 
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+
 import com.vacancy.organization.model.Organization;
 
 import reactor.core.publisher.Flux;
@@ -7,8 +12,13 @@ import reactor.core.publisher.Mono;
 
 public interface OrganizationService {
     Flux<Organization> getAllOrganizations(int page, int size);
+    Flux<Organization> getOrganizationsAfter(long afterId, int size);
+    Flux<Organization> exportOrganizations();
     Mono<Organization> getOrganizationById(long id);
+    Mono<Long> getOrganizationVersion(long id);
+    Flux<Organization> getOrganizationsByIds(List<Long> ids);
     Mono<Organization> createOrganization(Organization organization);
-    Mono<Organization> updateOrganization(long id, Organization organization);
+    Mono<Organization> updateOrganization(long id, Organization organization,
+            @Nullable Set<Long> expectedVersions);
     Mono<Void> deleteOrganization(long id);
 }
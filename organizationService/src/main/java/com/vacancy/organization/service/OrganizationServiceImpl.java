@@ -1,37 +1,82 @@
 package com.vacancy.organization.service;
 
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import com.vacancy.organization.config.SingleFlight;
 import com.vacancy.organization.exceptions.RequestException;
 import com.vacancy.organization.model.Organization;
 import com.vacancy.organization.repository.OrganizationRepository;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class OrganizationServiceImpl implements OrganizationService {
 
     private static final String ORGANIZATION_NOT_FOUND = "Организация не найдена";
+    private static final Sort BY_ID = Sort.by("id");
+    private static final int EXPORT_BATCH_SIZE = 500;
+    public static final int MAX_LOOKUP_SIZE = 500;
     private final OrganizationRepository organizationRepository;
+    // concurrent reads of one organization share a single query
+    private final SingleFlight<Long, Organization> organizationLoads;
+
+    public OrganizationServiceImpl(OrganizationRepository organizationRepository, MeterRegistry meterRegistry) {
+        this.organizationRepository = organizationRepository;
+        this.organizationLoads = new SingleFlight<>("organizations", meterRegistry);
+    }
 
     public Flux<Organization> getAllOrganizations(int page, int size) {
         if (size > 50)
             size = 50;
-        int skip = page * size;
-        return organizationRepository.findAll().skip(skip).take(size);
+        return organizationRepository.findAllBy(PageRequest.of(page, size, BY_ID));
+    }
+
+    public Flux<Organization> getOrganizationsAfter(long afterId, int size) {
+        if (size > 50)
+            size = 50;
+        return organizationRepository.findByIdGreaterThan(afterId, PageRequest.of(0, size, BY_ID));
+    }
+
+    public Flux<Organization> exportOrganizations() {
+        return organizationRepository.findAllBy(BY_ID)
+                .limitRate(EXPORT_BATCH_SIZE);
     }
 
     public Mono<Organization> getOrganizationById(long id) {
-        return organizationRepository.findById(id)
+        return organizationLoads.run(id, () -> organizationRepository.findById(id))
                 .switchIfEmpty(Mono.error(new RequestException(HttpStatus.NOT_FOUND, ORGANIZATION_NOT_FOUND)));
     }
 
+    // reads one column, for If-None-Match checks
+    public Mono<Long> getOrganizationVersion(long id) {
+        return organizationRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(new RequestException(HttpStatus.NOT_FOUND, ORGANIZATION_NOT_FOUND)));
+    }
+
+    // one SELECT ... WHERE id IN (...), unknown ids are simply not in the result
+    public Flux<Organization> getOrganizationsByIds(List<Long> ids) {
+        if (ids.size() > MAX_LOOKUP_SIZE) {
+            return Flux.error(new RequestException(HttpStatus.BAD_REQUEST,
+                    "За один запрос можно получить не больше " + MAX_LOOKUP_SIZE + " организаций"));
+        }
+        if (ids.contains(null)) {
+            return Flux.error(new RequestException(HttpStatus.BAD_REQUEST, "Некорректный id организации"));
+        }
+        return organizationRepository.findAllById(ids.stream().distinct().toList());
+    }
+
     public Mono<Organization> createOrganization(Organization organization) {
         return organizationRepository.findOrganizationByEmail(organization.getEmail())
                 .flatMap(existing -> Mono.<Organization>error(new RequestException(HttpStatus.CONFLICT,
@@ -39,9 +84,12 @@ public class OrganizationServiceImpl implements OrganizationService {
                 .switchIfEmpty(organizationRepository.save(organization));
     }
 
-    public Mono<Organization> updateOrganization(long id, Organization organization) {
+    public Mono<Organization> updateOrganization(long id, Organization organization,
+            @Nullable Set<Long> expectedVersions) {
         return organizationRepository.findById(id)
                 .switchIfEmpty(Mono.error(new RequestException(HttpStatus.NOT_FOUND, ORGANIZATION_NOT_FOUND)))
+                .filter(existing -> expectedVersions == null || expectedVersions.contains(existing.getVersion()))
+                .switchIfEmpty(Mono.error(new RequestException(HttpStatus.PRECONDITION_FAILED, "Организация была изменена")))
                 .flatMap(existingOrganization -> organizationRepository.findOrganizationByEmail(organization.getEmail())
                         .flatMap(existingByEmail -> {
                             if (!existingByEmail.getId().equals(id)) {
@@ -53,8 +101,12 @@ public class OrganizationServiceImpl implements OrganizationService {
                         .switchIfEmpty(Mono.just(existingOrganization))
                         .flatMap(org -> {
                             existingOrganization.updateWithOther(organization);
+                            // UPDATE ... WHERE version = ?, an update in between leaves no row to match
                             return organizationRepository.save(existingOrganization);
-                        }));
+                        }))
+                .onErrorMap(OptimisticLockingFailureException.class, e -> expectedVersions != null
+                        ? new RequestException(HttpStatus.PRECONDITION_FAILED, "Организация была изменена")
+                        : new RequestException(HttpStatus.CONFLICT, "Организация была изменена одновременно, повторите запрос"));
     }
 
     public Mono<Void> deleteOrganization(long id) {
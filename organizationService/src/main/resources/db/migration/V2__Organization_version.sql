@@ -0,0 +1,2 @@
+-- optimistic locking and ETags: bumped by Spring Data on every update
+ALTER TABLE organization ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
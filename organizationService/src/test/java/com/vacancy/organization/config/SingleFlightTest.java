@@ -0,0 +1,67 @@
+package com.vacancy.organization.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> loads = new SingleFlight<>("test", meterRegistry);
+
+    private double loads(String outcome) {
+        return meterRegistry.get("singleflight.loads").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void run_concurrentSubscriptionsShareOneLoad() {
+        Sinks.One<String> query = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> load = query.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        Flux<String> all = Flux.merge(loads.run(1L, () -> load), loads.run(1L, () -> load),
+                loads.run(1L, () -> load));
+        StepVerifier.create(all)
+                .then(() -> query.tryEmitValue("organization"))
+                .expectNext("organization", "organization", "organization")
+                .verifyComplete();
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(1, loads("executed"));
+        assertEquals(2, loads("coalesced"));
+    }
+
+    @Test
+    void run_finishedLoadIsForgotten() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> load = Mono.fromCallable(() -> "organization" + subscriptions.incrementAndGet());
+
+        StepVerifier.create(loads.run(1L, () -> load)).expectNext("organization1").verifyComplete();
+        StepVerifier.create(loads.run(1L, () -> load)).expectNext("organization2").verifyComplete();
+        assertEquals(2, loads("executed"));
+    }
+
+    @Test
+    void run_emptyAndErrorReachEverySubscriber() {
+        Sinks.One<String> query = Sinks.one();
+        Flux<String> all = Flux.merge(loads.run(1L, query::asMono), loads.run(1L, query::asMono));
+        StepVerifier.create(all)
+                .then(query::tryEmitEmpty)
+                .verifyComplete();
+
+        Sinks.One<String> failing = Sinks.one();
+        StepVerifier.create(Flux.merge(loads.run(2L, failing::asMono), loads.run(2L, failing::asMono)))
+                .then(() -> failing.tryEmitError(new IllegalStateException("down")))
+                .verifyError(IllegalStateException.class);
+        assertEquals(2, loads("coalesced"));
+    }
+}
@@ -4,6 +4,10 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -126,7 +130,7 @@ class OrganizationServiceTest {
         upd.setEmail("x@example.com");
         upd.setNickname("X");
 
-        StepVerifier.create(organizationService.updateOrganization(999999L, upd))
+        StepVerifier.create(organizationService.updateOrganization(999999L, upd, null))
                 .expectErrorSatisfies(e -> {
                     assertTrue(e instanceof RequestException);
                     assertEquals(HttpStatus.NOT_FOUND, ((RequestException) e).code);
@@ -147,7 +151,7 @@ class OrganizationServiceTest {
         upd.setEmail(testOrganization.getEmail());
         upd.setNickname("Updated");
 
-        StepVerifier.create(organizationService.updateOrganization(newOrg.getId(), upd))
+        StepVerifier.create(organizationService.updateOrganization(newOrg.getId(), upd, null))
                 .expectErrorSatisfies(e -> {
                     assertTrue(e instanceof RequestException);
                     assertEquals(HttpStatus.CONFLICT, ((RequestException) e).code);
@@ -166,7 +170,7 @@ class OrganizationServiceTest {
         saved.setEmail(upd.getEmail());
         saved.setNickname(upd.getNickname());
 
-        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd))
+        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd, null))
                 .expectNextMatches(o -> o.getEmail().equals("updated@example.com") && o.getNickname().equals("Updated"))
                 .verifyComplete();
     }
@@ -177,11 +181,36 @@ class OrganizationServiceTest {
         upd.setEmail(testOrganization.getEmail());
         upd.setNickname("Updated");
 
-        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd))
+        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd, null))
                 .expectNextMatches(o -> o.getEmail().equals(testOrganization.getEmail()) && o.getNickname().equals("Updated"))
                 .verifyComplete();
     }
 
+    @Test
+    void updateOrganization_expectedVersion() {
+        long version = testOrganization.getVersion();
+        Organization upd = new Organization();
+        upd.setEmail(testOrganization.getEmail());
+        upd.setNickname("Versioned");
+
+        // any of the listed versions may match
+        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd,
+                        Set.of(version + 5, version)))
+                .expectNextMatches(o -> o.getVersion() == version + 1)
+                .verifyComplete();
+
+        StepVerifier.create(organizationService.updateOrganization(testOrganization.getId(), upd, Set.of(version)))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof RequestException);
+                    assertEquals(HttpStatus.PRECONDITION_FAILED, ((RequestException) e).code);
+                })
+                .verify();
+
+        StepVerifier.create(organizationService.getOrganizationVersion(testOrganization.getId()))
+                .expectNext(version + 1)
+                .verifyComplete();
+    }
+
     @Test
     void deleteOrganization_completes() {
         StepVerifier.create(organizationService.deleteOrganization(testOrganization.getId())).verifyComplete();
@@ -221,4 +250,61 @@ class OrganizationServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getOrganizationsAfter_keyset() {
+        for (int i = 0; i < 5; i++) {
+            Organization o = new Organization();
+            o.setEmail("keyset" + i + "@example.com");
+            o.setNickname("Keyset" + i);
+            organizationRepository.save(o).block();
+        }
+
+        StepVerifier.create(organizationService.getOrganizationsAfter(0, 4).collectList())
+                .expectNextMatches(list -> list.size() == 4 && list.get(0).getId().equals(testOrganization.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(organizationService.getOrganizationsAfter(testOrganization.getId(), 60).collectList())
+                .expectNextMatches(list -> list.size() == 5
+                        && list.stream().allMatch(o -> o.getId() > testOrganization.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void getOrganizationsByIds_skipsUnknown() {
+        Organization toCreate = new Organization();
+        toCreate.setEmail("batch@example.com");
+        toCreate.setNickname("Batch");
+        Organization other = organizationRepository.save(toCreate).block();
+
+        List<Long> ids = List.of(other.getId(), 999999L, testOrganization.getId(), other.getId());
+        StepVerifier.create(organizationService.getOrganizationsByIds(ids).map(Organization::getId).collectList())
+                .expectNextMatches(found -> found.size() == 2
+                        && found.containsAll(List.of(testOrganization.getId(), other.getId())))
+                .verifyComplete();
+    }
+
+    @Test
+    void getOrganizationsByIds_tooManyIds() {
+        List<Long> ids = LongStream.rangeClosed(1, OrganizationServiceImpl.MAX_LOOKUP_SIZE + 1).boxed().toList();
+        StepVerifier.create(organizationService.getOrganizationsByIds(ids))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.BAD_REQUEST, ((RequestException) e).code))
+                .verify();
+    }
+
+    @Test
+    void exportOrganizations_allInIdOrder() {
+        for (int i = 0; i < 20; i++) {
+            Organization o = new Organization();
+            o.setEmail("export" + i + "@example.com");
+            o.setNickname("Export" + i);
+            organizationRepository.save(o).block();
+        }
+
+        StepVerifier.create(organizationService.exportOrganizations().collectList())
+                .expectNextMatches(list -> list.size() == 21
+                        && list.get(0).getId().equals(testOrganization.getId())
+                        && list.get(20).getNickname().equals("Export19"))
+                .verifyComplete();
+    }
+
 }
@@ -1,7 +1,11 @@
 package com.vacancy.user.client;
 
+import java.util.List;
+
 import org.springframework.stereotype.Service;
 
+import com.vacancy.user.model.dto.VacancyBatchDto;
+
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import reactor.core.publisher.Mono;
@@ -17,4 +21,14 @@ public class Clients {
         return vacancyClient.getVacancyById(orgId);
     }
 
+    @CircuitBreaker(name = "vacancy-service")
+    public Mono<VacancyBatchDto> getVacanciesByIds(List<Long> ids) {
+        return vacancyClient.getVacanciesByIds(ids);
+    }
+
+    @CircuitBreaker(name = "vacancy-service")
+    public Mono<Void> forgetUserInVacancyService(long userId) {
+        return vacancyClient.forgetUser(userId);
+    }
+
 }
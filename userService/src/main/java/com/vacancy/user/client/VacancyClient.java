@@ -1,16 +1,30 @@
 package com.vacancy.user.client;
 
+import java.util.List;
+
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import com.vacancy.user.model.dto.VacancyBatchDto;
 
 import reactivefeign.spring.config.ReactiveFeignClient;
 import reactor.core.publisher.Mono;
 
 
-@ReactiveFeignClient(name = "vacancy-service", path = "/api/vacancies")
+// no common path: forgetUser is served under /internal, which the gateway does not expose
+@ReactiveFeignClient(name = "vacancy-service")
 public interface VacancyClient {
 
-    @GetMapping("/{id}")
+    @GetMapping("/api/vacancies/{id}")
     Mono<Object> getVacancyById(@PathVariable("id") Long id);
 
+    @PostMapping("/api/vacancies/batch")
+    Mono<VacancyBatchDto> getVacanciesByIds(@RequestBody List<Long> ids);
+
+    @DeleteMapping("/internal/vacancies/responses/users/{userId}/cache")
+    Mono<Void> forgetUser(@PathVariable("userId") Long userId);
+
 }
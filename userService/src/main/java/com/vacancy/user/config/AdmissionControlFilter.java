@@ -0,0 +1,47 @@
+package com.vacancy.user.config;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+
+@Component
+@RequiredArgsConstructor
+public class AdmissionControlFilter implements WebFilter {
+
+    private static final byte[] OVERLOADED = "{\"Error\":\"Сервис перегружен, повторите позже\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final AdmissionController admissionController;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith("/api/")) {
+            return chain.filter(exchange);
+        }
+        AdmissionController.Limiter limiter = admissionController
+                .limiterFor(exchange.getRequest().getMethod().name());
+        if (limiter == null) {
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire()) {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(OVERLOADED)));
+        }
+        // released on completion, error and cancellation alike
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release());
+    }
+}
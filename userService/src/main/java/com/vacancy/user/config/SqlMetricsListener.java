@@ -0,0 +1,148 @@
+package com.vacancy.user.config;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records every JDBC statement as Micrometer metrics keyed by repository method and SQL fingerprint, and logs
+ * a sample of slow statements with their bind parameters. The {@code sql} tag is a short hash of the
+ * fingerprint, logged once with its text; the number of its values is capped in {@link SqlMetricsConfig}.
+ */
+@Slf4j
+class SqlMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAM_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ROW_LIST = Pattern.compile("\\(\\?\\+\\)(?:\\s*,\\s*\\(\\?\\+\\))+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_FINGERPRINTS = 1000;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration slowThreshold;
+    private final double slowSampleRate;
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    SqlMetricsListener(MeterRegistry meterRegistry, Duration slowThreshold, double slowSampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.slowThreshold = slowThreshold;
+        this.slowSampleRate = slowSampleRate;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String method = RepositoryMethodContext.currentMethod();
+        String sql = queryInfoList.size() == 1
+                ? fingerprint(queryInfoList.get(0).getQuery()).hash()
+                : queryInfoList.stream().map(q -> fingerprint(q.getQuery()).hash()).distinct()
+                        .collect(Collectors.joining(","));
+        String type = execInfo.isBatch() ? "batch" : execInfo.getStatementType().name().toLowerCase();
+
+        Timer.builder("db.sql.statement")
+                .description("JDBC statement execution time")
+                .tag("method", method)
+                .tag("sql", sql)
+                .tag("type", type)
+                .tag("outcome", execInfo.isSuccess() ? "success" : "error")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+
+        long affected = affectedRows(execInfo.getResult());
+        if (affected >= 0) {
+            DistributionSummary.builder("db.sql.rows.affected")
+                    .tag("method", method)
+                    .tag("sql", sql)
+                    .register(meterRegistry)
+                    .record(affected);
+        }
+
+        RepositoryMethodContext context = RepositoryMethodContext.current();
+        if (context != null) {
+            context.statements++;
+        }
+
+        if (execInfo.getElapsedTime() >= slowThreshold.toMillis()
+                && ThreadLocalRandom.current().nextDouble() < slowSampleRate) {
+            log.warn("Slow SQL ({} ms, {}, sql={}): {} params {}", execInfo.getElapsedTime(), method, sql,
+                    queryInfoList.stream().map(q -> fingerprint(q.getQuery()).sql()).distinct()
+                            .collect(Collectors.joining("; ")),
+                    queryInfoList.stream().map(QueryInfo::getParametersList).toList());
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        // rows are only known once the caller iterates the result set
+        if (executionContext.getTarget() instanceof ResultSet
+                && Boolean.TRUE.equals(executionContext.getResult())
+                && "next".equals(executionContext.getMethod().getName())) {
+            RepositoryMethodContext context = RepositoryMethodContext.current();
+            if (context != null) {
+                context.rowsRead++;
+            }
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            long total = 0;
+            for (int count : counts) {
+                // Statement.SUCCESS_NO_INFO (-2) for rewritten batches: the row count is unknown
+                total += Math.max(count, 0);
+            }
+            return total;
+        }
+        return -1;
+    }
+
+    private Fingerprint fingerprint(String query) {
+        Fingerprint cached = fingerprints.get(query);
+        if (cached != null) {
+            return cached;
+        }
+        String normalized = STRING_LITERAL.matcher(query).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        // IN lists and multi-row VALUES of any length share one fingerprint
+        normalized = PARAM_LIST.matcher(normalized).replaceAll("(?+)");
+        normalized = ROW_LIST.matcher(normalized).replaceAll("(?+)");
+        // String.hashCode is specified, the same statement gets the same tag on every instance and restart
+        Fingerprint fingerprint = new Fingerprint(normalized, String.format("%08x", normalized.hashCode()));
+        if (fingerprints.size() < MAX_FINGERPRINTS && fingerprints.putIfAbsent(query, fingerprint) == null) {
+            log.info("SQL fingerprint {}: {}", fingerprint.hash(), normalized);
+        }
+        return fingerprint;
+    }
+
+    private record Fingerprint(String sql, String hash) {
+    }
+}
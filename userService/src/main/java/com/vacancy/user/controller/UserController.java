@@ -2,8 +2,9 @@ package com.vacancy.user.controller;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,13 +12,17 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 
 import com.vacancy.user.model.User;
 import com.vacancy.user.model.dto.UserDtoIn;
 import com.vacancy.user.model.dto.UserDtoOut;
+import com.vacancy.user.model.dto.UserMapper;
+import com.vacancy.user.model.dto.VacancyDto;
 import com.vacancy.user.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -32,39 +37,72 @@ import reactor.core.publisher.Mono;
 public class UserController {
 
     private final UserService userService;
-    private final ModelMapper modelMapper = new ModelMapper();
+    private final UserMapper userMapper;
 
-    @Operation(summary = "Получить список всех пользователей")
+    @Operation(summary = "Получить список всех пользователей",
+            description = "С параметром after (id последнего полученного пользователя) работает в режиме курсора")
     @GetMapping
-    public Flux<UserDtoOut> getAllUsers(
+    public Mono<ResponseEntity<List<UserDtoOut>>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
-        return userService.getAllUsers(page, size)
-                .map(user -> modelMapper.map(user, UserDtoOut.class));
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) Long after) {
+        Flux<User> users = after != null
+                ? userService.getUsersAfter(after, size)
+                : userService.getAllUsers(page, size);
+        return users
+                .collectList()
+                .map(list -> ResponseEntity.ok()
+                        .eTag(ETags.weak(list, User::getId, User::getVersion))
+                        .body(list.stream().map(userMapper::toDto).toList()));
     }
 
-    @Operation(summary = "Получить пользователя по id")
+    @Operation(summary = "Выгрузить всех пользователей",
+            description = "Все пользователи в формате NDJSON (по одному на строку), отсортированные по id")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<UserDtoOut> exportUsers() {
+        return userService.exportUsers()
+                .map(userMapper::toDto);
+    }
+
+    @Operation(summary = "Получить пользователя по id", description = "Возвращает ETag с версией пользователя, "
+            + "на запрос с актуальным If-None-Match отвечает 304")
     @GetMapping("/{userId}")
-    public Mono<ResponseEntity<UserDtoOut>> getUserById(@PathVariable Long userId) {
-        return userService.getUserById(userId)
-                .map(usr -> modelMapper.map(usr, UserDtoOut.class))
-                .map(ResponseEntity::ok);
+    public Mono<ResponseEntity<UserDtoOut>> getUserById(@PathVariable Long userId, ServerWebExchange exchange) {
+        Mono<ResponseEntity<UserDtoOut>> user = userService.getUserById(userId)
+                .map(usr -> ResponseEntity.ok()
+                        .eTag(ETags.strong(usr.getVersion()))
+                        .body(userMapper.toDto(usr)));
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty()) {
+            return user;
+        }
+        // the version alone decides a 304, the user is loaded only when it has changed
+        return userService.getUserVersion(userId)
+                .flatMap(version -> exchange.checkNotModified(ETags.strong(version))
+                        ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                                .eTag(ETags.strong(version))
+                                .<UserDtoOut>build())
+                        : user);
     }
 
     @Operation(summary = "Создать пользователя")
     @PostMapping
     public Mono<ResponseEntity<UserDtoOut>> createUser(@Valid @RequestBody UserDtoIn user) {
-        return userService.createUser(modelMapper.map(user, User.class))
-                .map(usr -> modelMapper.map(usr, UserDtoOut.class))
+        return userService.createUser(userMapper.toEntity(user))
+                .map(userMapper::toDto)
                 .map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
     }
 
-    @Operation(summary = "Обновить пользователя по id")
+    @Operation(summary = "Обновить пользователя по id",
+            description = "С заголовком If-Match обновляет только одну из указанных версий, иначе отвечает 412")
     @PutMapping("/{userId}")
-    public Mono<ResponseEntity<UserDtoOut>> updateUser(@PathVariable Long userId, @Valid @RequestBody UserDtoIn user) {
-        return userService.updateUser(userId, modelMapper.map(user, User.class))
-                .map(usr -> modelMapper.map(usr, UserDtoOut.class))
-                .map(ResponseEntity::ok);
+    public Mono<ResponseEntity<UserDtoOut>> updateUser(
+            @PathVariable Long userId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UserDtoIn user) {
+        return userService.updateUser(userId, userMapper.toEntity(user), ETags.expectedVersions(ifMatch))
+                .map(usr -> ResponseEntity.ok()
+                        .eTag(ETags.strong(usr.getVersion()))
+                        .body(userMapper.toDto(usr)));
     }
 
     @Operation(summary = "Удалить пользователя по id")
@@ -81,6 +119,14 @@ public class UserController {
                 .map(ResponseEntity::ok);
     }
 
+    @Operation(summary = "Получить избранные вакансии пользователя целиком", description = "Вакансии в порядке "
+            + "добавления в избранное, удаленные пропускаются. С Accept: application/x-ndjson отдаются по мере получения")
+    @GetMapping(value = "/{userId}/favorite/vacancies",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<VacancyDto> getUserFavoriteVacancies(@PathVariable Long userId) {
+        return userService.getUserFavoriteVacancies(userId);
+    }
+
     @Operation(summary = "Добавить вакансию в избранное")
     @PutMapping("/{userId}/favorite/{vacancyId}")
     public Mono<ResponseEntity<Void>> addToFavorites(
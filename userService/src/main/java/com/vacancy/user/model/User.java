@@ -3,6 +3,8 @@ package com.vacancy.user.model;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OptimisticLock;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -16,6 +18,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -50,11 +53,17 @@ public class User {
     @Size(max = 512, message = "CV Link не может превышать 512 символов")
     private @Nullable String cvLink;
 
+    // favorites are not part of the user representation, changing them keeps the ETag
+    @OptimisticLock(excluded = true)
     @ElementCollection(fetch = FetchType.EAGER)
+    @BatchSize(size = 50) // one IN (...) query per listing page instead of one query per user
     @CollectionTable(name = "user_favorites", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "vacancy_id")
     private List<Long> favoriteVacancyIds = new ArrayList<>(); // ID избранных вакансий
 
+    @Version
+    private long version;
+
     public void updateWithOther(User other) {
         this.setNickname(other.getNickname());
         this.setEmail(other.getEmail());
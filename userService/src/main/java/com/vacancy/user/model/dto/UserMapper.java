@@ -0,0 +1,24 @@
+package com.vacancy.user.model.dto;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import com.vacancy.user.model.User;
+
+// the implementation is generated at compile time, a field added on one side only fails the build
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface UserMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "favoriteVacancyIds", ignore = true)
+    User toEntity(UserDtoIn dto);
+
+    UserDtoOut toDto(User user);
+
+    List<UserDtoOut> toDto(List<User> users);
+}
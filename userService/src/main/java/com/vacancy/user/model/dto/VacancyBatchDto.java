@@ -0,0 +1,23 @@
+package com.vacancy.user.model.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Answer of vacancy-service to a multi-get: found vacancies in request order and the ids that do not exist.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class VacancyBatchDto {
+    private List<VacancyDto> vacancies = new ArrayList<>();
+    private List<Long> missingIds = new ArrayList<>();
+}
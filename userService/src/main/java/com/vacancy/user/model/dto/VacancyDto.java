@@ -0,0 +1,20 @@
+package com.vacancy.user.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Vacancy as vacancy-service returns it, passed on unchanged in the favorites of a user.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class VacancyDto {
+    private Long id;
+    private String title;
+    private String description;
+    private Integer salary;
+    private String city;
+    private Long organizationId;
+}
@@ -4,11 +4,23 @@ import com.vacancy.user.model.User;
 
 import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface UserRepository extends CrudRepository<User, Long>, PagingAndSortingRepository<User, Long> {
     Optional<User> findUserByEmail(String email);
+
+    // Slice instead of Page: LIMIT size+1 without a count(*) query
+    Slice<User> findAllBy(Pageable pageable);
+
+    Slice<User> findByIdGreaterThan(long id, Pageable pageable);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
 }
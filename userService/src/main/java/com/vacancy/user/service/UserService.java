@@ -1,19 +1,27 @@
 package com.vacancy.user.service;
 
 import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.Nullable;
 
 import com.vacancy.user.model.User;
+import com.vacancy.user.model.dto.VacancyDto;
 
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface UserService {
     Flux<User> getAllUsers(int page, int size);
+    Flux<User> getUsersAfter(long afterId, int size);
+    Flux<User> exportUsers();
     Mono<User> getUserById(long id);
+    Mono<Long> getUserVersion(long id);
     Mono<User> createUser(User user);
-    Mono<User> updateUser(long id, User user);
+    Mono<User> updateUser(long id, User user, @Nullable Set<Long> expectedVersions);
     Mono<Void> deleteUser(long id);
     Mono<List<Long>> getUserFavoriteVacancyIds(long id);
+    Flux<VacancyDto> getUserFavoriteVacancies(long id);
     Mono<Void> addToFavorites(long userId, long vacancyId);
     Mono<Void> removeFromFavorites(long userId, long vacancyId);
 }
@@ -1,13 +1,21 @@
 package com.vacancy.user.service;
 
 import java.util.List;
+import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
 import com.vacancy.user.client.Clients;
 import com.vacancy.user.exceptions.RequestException;
 import com.vacancy.user.model.User;
+import com.vacancy.user.model.dto.VacancyBatchDto;
+import com.vacancy.user.model.dto.VacancyDto;
 import com.vacancy.user.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -22,6 +30,11 @@ import reactor.core.scheduler.Schedulers;
 public class UserServiceImpl implements UserService {
 
     private static final String USER_NOT_FOUND = "Пользователь не найден";
+    private static final Sort BY_ID = Sort.by("id");
+    private static final int EXPORT_PAGE_SIZE = 500;
+    // ids per multi-get to vacancy-service, which accepts up to 200
+    private static final int FAVORITES_PAGE_SIZE = 50;
+    private static final int FAVORITES_PAGES_IN_FLIGHT = 4;
 
     private final UserRepository userRepository;
     private final Clients clients;
@@ -29,12 +42,35 @@ public class UserServiceImpl implements UserService {
     public Flux<User> getAllUsers(int page, int size) {
         if (size > 50)
             size = 50;
-        int skip = page * size;
+        PageRequest pageRequest = PageRequest.of(page, size, BY_ID);
 
-        return Mono.fromCallable(userRepository::findAll)
+        return Mono.fromCallable(() -> userRepository.findAllBy(pageRequest))
                 .flatMapMany(Flux::fromIterable)
-                .skip(skip)
-                .take(size)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Flux<User> getUsersAfter(long afterId, int size) {
+        if (size > 50)
+            size = 50;
+        PageRequest pageRequest = PageRequest.of(0, size, BY_ID);
+
+        return Mono.fromCallable(() -> userRepository.findByIdGreaterThan(afterId, pageRequest))
+                .flatMapMany(Flux::fromIterable)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // keyset pages are read one at a time as the client consumes them, so memory does not depend on table size
+    public Flux<User> exportUsers() {
+        return fetchExportPage(0)
+                .expand(slice -> slice.hasNext()
+                        ? fetchExportPage(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+                        : Mono.empty())
+                .flatMapIterable(Slice::getContent, 1);
+    }
+
+    private Mono<Slice<User>> fetchExportPage(long afterId) {
+        PageRequest pageRequest = PageRequest.of(0, EXPORT_PAGE_SIZE, BY_ID);
+        return Mono.fromCallable(() -> userRepository.findByIdGreaterThan(afterId, pageRequest))
                 .subscribeOn(Schedulers.boundedElastic());
     }
 
@@ -44,6 +80,13 @@ public class UserServiceImpl implements UserService {
                 .subscribeOn(Schedulers.boundedElastic());
     }
 
+    // an index lookup instead of loading the user with favorites, for If-None-Match checks
+    public Mono<Long> getUserVersion(long id) {
+        return Mono.fromCallable(() -> userRepository.findVersionById(id)
+                .orElseThrow(() -> new RequestException(HttpStatus.NOT_FOUND, USER_NOT_FOUND)))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     public Mono<User> createUser(User user) {
         return Mono.fromCallable(() -> {
             if (userRepository.findUserByEmail(user.getEmail()).isEmpty()) {
@@ -53,10 +96,13 @@ public class UserServiceImpl implements UserService {
         }).subscribeOn(Schedulers.boundedElastic());
     }
 
-    public Mono<User> updateUser(long id, User user) {
+    public Mono<User> updateUser(long id, User user, @Nullable Set<Long> expectedVersions) {
         return Mono.fromCallable(() -> {
             User existingUser = userRepository.findById(id)
                     .orElseThrow(() -> new RequestException(HttpStatus.NOT_FOUND, USER_NOT_FOUND));
+            if (expectedVersions != null && !expectedVersions.contains(existingUser.getVersion())) {
+                throw new RequestException(HttpStatus.PRECONDITION_FAILED, "Пользователь был изменен");
+            }
 
             if (userRepository.findUserByEmail(user.getEmail()).isPresent()
                     && !existingUser.getEmail().equals(user.getEmail())) {
@@ -64,14 +110,26 @@ public class UserServiceImpl implements UserService {
                         "С таким email уже зарегистрирован другой пользователь");
             }
             existingUser.updateWithOther(user);
-            return userRepository.save(existingUser);
+            // existingUser is detached, merge checks its version against the row and catches an update in between
+            try {
+                return userRepository.save(existingUser);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw expectedVersions != null
+                        ? new RequestException(HttpStatus.PRECONDITION_FAILED, "Пользователь был изменен")
+                        : new RequestException(HttpStatus.CONFLICT, "Пользователь был изменен одновременно, повторите запрос");
+            }
         }).subscribeOn(Schedulers.boundedElastic());
     }
 
     public Mono<Void> deleteUser(long id) {
         return Mono.fromRunnable(() -> userRepository.deleteById(id))
                 .subscribeOn(Schedulers.boundedElastic())
-                .then();
+                .then(Mono.defer(() -> clients.forgetUserInVacancyService(id))
+                        // vacancy-service cache entries expire anyway, deletion must not fail because of it
+                        .onErrorResume(err -> {
+                            log.warn("Could not notify vacancy-service about deleted user {}: {}", id, err.getMessage());
+                            return Mono.empty();
+                        }));
     }
 
     public Mono<List<Long>> getUserFavoriteVacancyIds(long id) {
@@ -79,6 +137,19 @@ public class UserServiceImpl implements UserService {
                 .map(User::getFavoriteVacancyIds);
     }
 
+    // one vacancy-service call per page of ids, a few pages in flight but emitted in favorites order;
+    // deleted vacancies come back as missing ids and are left out
+    public Flux<VacancyDto> getUserFavoriteVacancies(long id) {
+        return getUserFavoriteVacancyIds(id)
+                .flatMapMany(Flux::fromIterable)
+                .buffer(FAVORITES_PAGE_SIZE)
+                .flatMapSequential(ids -> clients.getVacanciesByIds(ids)
+                        .onErrorMap(err -> new RequestException(HttpStatus.SERVICE_UNAVAILABLE,
+                                "Сервис вакансий недоступен")),
+                        FAVORITES_PAGES_IN_FLIGHT)
+                .flatMapIterable(VacancyBatchDto::getVacancies);
+    }
+
     public Mono<Void> addToFavorites(long userId, long vacancyId) {
         return getUserById(userId)
                 .onErrorMap(err -> new RequestException(HttpStatus.NOT_FOUND, USER_NOT_FOUND))
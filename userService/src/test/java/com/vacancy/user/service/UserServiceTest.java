@@ -16,16 +16,24 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import org.testcontainers.containers.PostgreSQLContainer;
 
 import com.vacancy.user.client.VacancyClient;
 import com.vacancy.user.exceptions.RequestException;
 import com.vacancy.user.model.User;
+import com.vacancy.user.model.dto.VacancyBatchDto;
+import com.vacancy.user.model.dto.VacancyDto;
 import com.vacancy.user.repository.UserRepository;
 
 import reactor.test.StepVerifier;
@@ -102,6 +110,40 @@ class UserServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    void getUsersAfter_keyset() {
+        for (int i = 0; i < 5; i++) {
+            userRepository.save(new User("Keyset" + i, "k" + i + "@example.com"));
+        }
+
+        StepVerifier.create(userService.getUsersAfter(0, 4).collectList())
+                .expectNextMatches(list -> list.size() == 4 && list.get(0).getId() == testUser.getId())
+                .verifyComplete();
+
+        StepVerifier.create(userService.getUsersAfter(testUser.getId(), 60).collectList())
+                .expectNextMatches(list -> list.size() == 5
+                        && list.stream().allMatch(u -> u.getId() > testUser.getId()))
+                .verifyComplete();
+    }
+
+    @Test
+    void exportUsers_crosses_page_boundaries() {
+        for (int i = 0; i < 520; i++) {
+            userRepository.save(new User("Export" + i, "e" + i + "@example.com"));
+        }
+
+        StepVerifier.create(userService.exportUsers().collectList())
+                .expectNextMatches(list -> list.size() == 521
+                        && list.get(0).getId() == testUser.getId()
+                        && list.get(520).getNickname().equals("Export519"))
+                .verifyComplete();
+
+        // a client that stops early only pulls the first page
+        StepVerifier.create(userService.exportUsers().take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
     @Test
     void getUserById_found_and_notFound() {
         StepVerifier.create(userService.getUserById(testUser.getId()))
@@ -136,7 +178,7 @@ class UserServiceTest {
     void updateUser_notFound_conflict_success() {
         // not found
         User upd = new User("X", "x@example.com");
-        StepVerifier.create(userService.updateUser(999999L, upd))
+        StepVerifier.create(userService.updateUser(999999L, upd, null))
                 .expectErrorSatisfies(e -> {
                     assertTrue(e instanceof RequestException);
                     assertEquals(HttpStatus.NOT_FOUND, ((RequestException) e).code);
@@ -147,7 +189,7 @@ class UserServiceTest {
         User another = new User("Another", "another@example.com");
         another = userRepository.save(another);
         User conflictUpdate = new User("AnotherUpdated", testUser.getEmail());
-        StepVerifier.create(userService.updateUser(another.getId(), conflictUpdate))
+        StepVerifier.create(userService.updateUser(another.getId(), conflictUpdate, null))
                 .expectErrorSatisfies(e -> {
                     assertTrue(e instanceof RequestException);
                     assertEquals(HttpStatus.CONFLICT, ((RequestException) e).code);
@@ -156,11 +198,33 @@ class UserServiceTest {
 
         // success
         User successUpdate = new User("Updated", "updated@example.com");
-        StepVerifier.create(userService.updateUser(testUser.getId(), successUpdate))
+        StepVerifier.create(userService.updateUser(testUser.getId(), successUpdate, null))
                 .expectNextMatches(u -> u.getEmail().equals("updated@example.com") && u.getNickname().equals("Updated"))
                 .verifyComplete();
     }
 
+    @Test
+    void updateUser_expectedVersion() {
+        long version = testUser.getVersion();
+        // any of the listed versions may match
+        StepVerifier.create(userService.updateUser(testUser.getId(), new User("V1", "v1@example.com"),
+                        Set.of(version + 5, version)))
+                .expectNextMatches(u -> u.getVersion() == version + 1)
+                .verifyComplete();
+
+        StepVerifier.create(userService.updateUser(testUser.getId(), new User("V2", "v2@example.com"),
+                        Set.of(version)))
+                .expectErrorSatisfies(e -> {
+                    assertTrue(e instanceof RequestException);
+                    assertEquals(HttpStatus.PRECONDITION_FAILED, ((RequestException) e).code);
+                })
+                .verify();
+
+        StepVerifier.create(userService.getUserVersion(testUser.getId()))
+                .expectNext(version + 1)
+                .verifyComplete();
+    }
+
     @Test
     void deleteUser_completes() {
         StepVerifier.create(userService.deleteUser(testUser.getId())).verifyComplete();
@@ -202,6 +266,41 @@ class UserServiceTest {
                 .verify();
     }
 
+    @Test
+    void getUserFavoriteVacancies_batchedInOrderWithoutDeleted() {
+        User user = userRepository.findById(testUser.getId()).orElseThrow();
+        List<Long> favorites = LongStream.rangeClosed(1, 120).boxed().toList();
+        user.getFavoriteVacancyIds().addAll(favorites);
+        userRepository.save(user);
+
+        // vacancy 7 has been deleted in vacancy-service
+        when(vacancyClient.getVacanciesByIds(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return Mono.just(new VacancyBatchDto(
+                    ids.stream().filter(id -> id != 7L)
+                            .map(id -> new VacancyDto(id, "Vacancy " + id, "desc", null, null, 1L))
+                            .toList(),
+                    ids.contains(7L) ? List.of(7L) : List.of()));
+        });
+
+        StepVerifier.create(userService.getUserFavoriteVacancies(testUser.getId()).map(VacancyDto::getId).collectList())
+                .expectNext(favorites.stream().filter(id -> id != 7L).toList())
+                .verifyComplete();
+        verify(vacancyClient, times(3)).getVacanciesByIds(anyList());
+    }
+
+    @Test
+    void getUserFavoriteVacancies_vacancyServiceDown() {
+        User user = userRepository.findById(testUser.getId()).orElseThrow();
+        user.getFavoriteVacancyIds().add(1L);
+        userRepository.save(user);
+        when(vacancyClient.getVacanciesByIds(anyList())).thenReturn(Mono.error(new RuntimeException("down")));
+
+        StepVerifier.create(userService.getUserFavoriteVacancies(testUser.getId()))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((RequestException) e).code))
+                .verify();
+    }
+
     @Test
     void addToFavorites_userNotFound() {
         // no user with given id
@@ -2,10 +2,9 @@ package com.vacancy.vacancy;
 
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
@@ -19,6 +18,7 @@ import io.swagger.v3.oas.models.servers.Server;
 @SpringBootApplication
 @EnableDiscoveryClient
 @EnableFeignClients
+@EnableCaching
 @OpenAPIDefinition
 @Configuration
 public class VacancyServiceApplication {
@@ -34,17 +34,4 @@ public class VacancyServiceApplication {
                 .info(new Info().title("Vacancy service API").version("1.0.0"));
     }
 
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper modelMapper = new ModelMapper();
-
-        // Основные настройки для предотвращения двойного маппирования
-        modelMapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setAmbiguityIgnored(true)
-                .setSkipNullEnabled(true);
-
-        return modelMapper;
-    }
-
 }
@@ -1,24 +1,236 @@
 package com.vacancy.vacancy.client;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vacancy.vacancy.config.SingleFlight;
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import feign.FeignException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class Clients {
 
+    // organization-service answers up to 500 ids per batch lookup
+    private static final int ORGANIZATION_BATCH_SIZE = 500;
+
     private final OrganizationClient organizationClient;
     private final UserClient userClient;
 
-    @CircuitBreaker(name = "organization-service")
+    private final CircuitBreaker organizationBreaker;
+    private final Duration organizationTtl;
+    private final Duration organizationStaleTtl;
+    // entries outlive their ttl by the stale window so they can be served while organization-service is down
+    private final Cache<Long, CachedOrganization> organizations;
+    private final Cache<Long, Boolean> missingOrganizations;
+    private final Counter staleOrganizations;
+    // concurrent misses for one id share a single remote call
+    private final SingleFlight<Long, CachedOrganization> organizationCalls;
+
+    private final CircuitBreaker userBreaker;
+    // only confirmed users are cached; user-service evicts an id when the user is deleted
+    private final Cache<Long, Object> users;
+    private final SingleFlight<Long, Object> userCalls;
+
+    public Clients(OrganizationClient organizationClient,
+            UserClient userClient,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${clients.organization-cache.max-size:10000}") long organizationMaxSize,
+            @Value("${clients.organization-cache.ttl:5m}") Duration organizationTtl,
+            @Value("${clients.organization-cache.stale-ttl:1h}") Duration organizationStaleTtl,
+            @Value("${clients.organization-cache.negative-ttl:30s}") Duration organizationNegativeTtl,
+            @Value("${clients.user-cache.max-size:100000}") long userMaxSize,
+            @Value("${clients.user-cache.ttl:10m}") Duration userTtl) {
+        this.organizationClient = organizationClient;
+        this.userClient = userClient;
+        this.organizationBreaker = circuitBreakerRegistry.circuitBreaker("organization-service");
+        this.organizationTtl = organizationTtl;
+        this.organizationStaleTtl = organizationStaleTtl;
+
+        this.organizations = Caffeine.newBuilder()
+                .maximumSize(organizationMaxSize)
+                .expireAfterWrite(organizationTtl.plus(organizationStaleTtl))
+                .recordStats()
+                .build();
+        this.missingOrganizations = Caffeine.newBuilder()
+                .maximumSize(organizationMaxSize)
+                .expireAfterWrite(organizationNegativeTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, organizations, "organizations");
+        CaffeineCacheMetrics.monitor(meterRegistry, missingOrganizations, "missing-organizations");
+        this.staleOrganizations = meterRegistry.counter("clients.organizations.stale");
+        this.organizationCalls = new SingleFlight<>("organizations", meterRegistry);
+
+        this.userBreaker = circuitBreakerRegistry.circuitBreaker("user-service");
+        this.users = Caffeine.newBuilder()
+                .maximumSize(userMaxSize)
+                .expireAfterWrite(userTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users");
+        this.userCalls = new SingleFlight<>("users", meterRegistry);
+    }
+
     public Object getOrganizationById(long orgId) {
-        return organizationClient.getOrganizationById(orgId);
+        if (missingOrganizations.getIfPresent(orgId) != null) {
+            throw new RequestException(HttpStatus.NOT_FOUND, "Организация не найдена");
+        }
+        CachedOrganization cached = organizations.getIfPresent(orgId);
+        if (cached != null && cached.isFresh()) {
+            return cached.organization;
+        }
+        try {
+            return organizationCalls.run(orgId, () -> {
+                CachedOrganization current = organizations.getIfPresent(orgId);
+                if (current != null && current.isFresh()) {
+                    return current;
+                }
+                CachedOrganization fetched = fetchOrganization(orgId, current);
+                organizations.put(orgId, fetched);
+                return fetched;
+            }).organization;
+        } catch (FeignException.NotFound e) {
+            organizations.invalidate(orgId);
+            missingOrganizations.put(orgId, Boolean.TRUE);
+            throw e;
+        }
+    }
+
+    /**
+     * Which of the ids belong to existing organizations. Cached answers are used as they are, the rest is
+     * asked from organization-service in batches and cached like single lookups. When organization-service
+     * is unavailable, ids with a usable stale entry still count as existing and all others are returned as
+     * unavailable: they are neither confirmed nor known to be missing.
+     */
+    public OrganizationLookup lookupOrganizations(Collection<Long> orgIds) {
+        Set<Long> existing = new HashSet<>();
+        Set<Long> unavailable = new HashSet<>();
+        Map<Long, CachedOrganization> toFetch = new LinkedHashMap<>();
+        for (Long orgId : orgIds) {
+            if (missingOrganizations.getIfPresent(orgId) != null) {
+                continue;
+            }
+            CachedOrganization cached = organizations.getIfPresent(orgId);
+            if (cached != null && cached.isFresh()) {
+                existing.add(orgId);
+            } else {
+                toFetch.put(orgId, cached);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(toFetch.keySet());
+        for (int from = 0; from < ids.size(); from += ORGANIZATION_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + ORGANIZATION_BATCH_SIZE, ids.size()));
+            try {
+                List<Map<String, Object>> found = organizationBreaker
+                        .executeSupplier(() -> organizationClient.getOrganizationsByIds(batch));
+                long now = System.nanoTime();
+                for (Map<String, Object> organization : found) {
+                    long orgId = ((Number) organization.get("id")).longValue();
+                    organizations.put(orgId, new CachedOrganization(organization, now));
+                    existing.add(orgId);
+                }
+                for (Long orgId : batch) {
+                    if (!existing.contains(orgId)) {
+                        organizations.invalidate(orgId);
+                        missingOrganizations.put(orgId, Boolean.TRUE);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.warn("organization-service unavailable ({}), checking {} organizations against stale entries",
+                        e.getClass().getSimpleName(), batch.size());
+                for (Long orgId : batch) {
+                    CachedOrganization stale = toFetch.get(orgId);
+                    if (stale != null && stale.isUsable()) {
+                        staleOrganizations.increment();
+                        existing.add(orgId);
+                    } else {
+                        unavailable.add(orgId);
+                    }
+                }
+            }
+        }
+        return new OrganizationLookup(existing, unavailable);
+    }
+
+    private CachedOrganization fetchOrganization(long orgId, CachedOrganization stale) {
+        try {
+            Object organization = organizationBreaker
+                    .executeSupplier(() -> organizationClient.getOrganizationById(orgId));
+            return new CachedOrganization(organization, System.nanoTime());
+        } catch (FeignException.NotFound e) {
+            throw e;
+        } catch (RuntimeException e) {
+            // open circuit (CallNotPermittedException) or a failed call: fall back to the last known answer
+            if (stale == null || !stale.isUsable()) {
+                throw e;
+            }
+            log.warn("organization-service unavailable ({}), serving stale organization {}",
+                    e.getClass().getSimpleName(), orgId);
+            staleOrganizations.increment();
+            return stale;
+        }
     }
 
-    @CircuitBreaker(name = "user-service")
     public Object getUserById(long userId) {
-        return userClient.getUserById(userId);
+        Object cached = users.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        // failed lookups are not cached
+        return userCalls.run(userId, () -> {
+            Object user = userBreaker.executeSupplier(() -> userClient.getUserById(userId));
+            users.put(userId, user);
+            return user;
+        });
+    }
+
+    public void evictUser(long userId) {
+        users.invalidate(userId);
+    }
+
+    /**
+     * Answer of {@link #lookupOrganizations}: ids in neither set are missing.
+     */
+    public record OrganizationLookup(Set<Long> existing, Set<Long> unavailable) {
+    }
+
+    private final class CachedOrganization {
+        private final Object organization;
+        private final long fetchedAtNanos;
+
+        private CachedOrganization(Object organization, long fetchedAtNanos) {
+            this.organization = organization;
+            this.fetchedAtNanos = fetchedAtNanos;
+        }
+
+        boolean isFresh() {
+            return System.nanoTime() - fetchedAtNanos < organizationTtl.toNanos();
+        }
+
+        boolean isUsable() {
+            return System.nanoTime() - fetchedAtNanos < organizationTtl.plus(organizationStaleTtl).toNanos();
+        }
     }
 }
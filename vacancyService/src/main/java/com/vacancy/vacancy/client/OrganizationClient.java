@@ -1,8 +1,13 @@
 package com.vacancy.vacancy.client;
 
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 
 @FeignClient(name = "organization-service", path = "/api/organizations")
 public interface OrganizationClient {
@@ -10,4 +15,8 @@ public interface OrganizationClient {
     @GetMapping("/{id}")
     Object getOrganizationById(@PathVariable("id") Long id);
 
+    // unknown ids are left out of the answer
+    @PostMapping("/batch")
+    List<Map<String, Object>> getOrganizationsByIds(@RequestBody List<Long> ids);
+
 }
@@ -0,0 +1,177 @@
+package com.vacancy.vacancy.config;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * AIMD concurrency limits for reads and writes, driven by how long requests wait for a pooled connection
+ * (hikaricp.connections.acquire). While the mean wait of the last interval stays under the target a limit
+ * that is actually reached grows by one; above the target it is cut by the backoff ratio. Requests over
+ * the limit are rejected immediately instead of queueing for a connection. Acquisition timeouts
+ * (hikaricp.connections.timeout) count as congestion too. Reads are GET and HEAD requests and the
+ * lookups that take their ids in a POST body, everything else is a write.
+ */
+@Component
+@Slf4j
+public class AdmissionController {
+
+    // POST only because the id list does not fit in a query string; user-service calls it on its hot path
+    private static final Set<String> READ_ONLY_POSTS = Set.of("/api/vacancies/batch");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration targetAcquireTime;
+    private final Duration interval;
+    private final double backoffRatio;
+    private final boolean enabled;
+
+    private final Limiter reads;
+    private final Limiter writes;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "admission-control");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+    private double lastTimeouts;
+
+    public AdmissionController(MeterRegistry meterRegistry,
+            @Value("${admission.enabled:true}") boolean enabled,
+            @Value("${admission.target-acquire-time:20ms}") Duration targetAcquireTime,
+            @Value("${admission.interval:1s}") Duration interval,
+            @Value("${admission.backoff-ratio:0.75}") double backoffRatio,
+            @Value("${admission.min-limit:4}") int minLimit,
+            @Value("${admission.max-limit:400}") int maxLimit,
+            @Value("${admission.read.initial-limit:100}") int readInitialLimit,
+            @Value("${admission.write.initial-limit:40}") int writeInitialLimit) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.targetAcquireTime = targetAcquireTime;
+        this.interval = interval;
+        this.backoffRatio = backoffRatio;
+        this.reads = new Limiter("read", readInitialLimit, minLimit, maxLimit, meterRegistry);
+        this.writes = new Limiter("write", writeInitialLimit, minLimit, maxLimit, meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(this::adjust, interval.toMillis(), interval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * @return the limiter of the request's class, or {@code null} when admission control is switched off
+     */
+    public Limiter limiterFor(String httpMethod, String path) {
+        if (!enabled) {
+            return null;
+        }
+        boolean read = "GET".equals(httpMethod) || "HEAD".equals(httpMethod)
+                || "POST".equals(httpMethod) && READ_ONLY_POSTS.contains(path);
+        return read ? reads : writes;
+    }
+
+    void adjust() {
+        Timer acquire = meterRegistry.find("hikaricp.connections.acquire").timer();
+        if (acquire == null) {
+            return;
+        }
+        long count = acquire.count();
+        double totalNanos = acquire.totalTime(TimeUnit.NANOSECONDS);
+        long acquisitions = count - lastAcquireCount;
+        double meanNanos = acquisitions > 0 ? (totalNanos - lastAcquireNanos) / acquisitions : 0;
+        lastAcquireCount = count;
+        lastAcquireNanos = totalNanos;
+
+        // the acquire timer only sees successful borrows: a saturated pool shows up as timeouts,
+        // or as waiting threads while no borrow completed at all
+        Counter timeoutCounter = meterRegistry.find("hikaricp.connections.timeout").counter();
+        double timeoutTotal = timeoutCounter != null ? timeoutCounter.count() : 0;
+        double timeouts = timeoutTotal - lastTimeouts;
+        lastTimeouts = timeoutTotal;
+        Gauge pendingGauge = meterRegistry.find("hikaricp.connections.pending").gauge();
+        double pending = pendingGauge != null ? pendingGauge.value() : 0;
+
+        boolean congested = meanNanos > targetAcquireTime.toNanos() || timeouts > 0
+                || (acquisitions == 0 && pending > 0);
+        reads.adjust(congested, backoffRatio);
+        writes.adjust(congested, backoffRatio);
+        if (congested) {
+            log.warn("Connection acquire {} ms above target ({} timeouts, {} waiting), limits cut to read={} write={}",
+                    String.format("%.1f", meanNanos / 1_000_000), (long) timeouts, (long) pending,
+                    reads.limit, writes.limit);
+        }
+    }
+
+    public static final class Limiter {
+        private final int minLimit;
+        private final int maxLimit;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peakInFlight = new AtomicInteger();
+        private final Counter rejected;
+        private volatile int limit;
+
+        private Limiter(String name, int initialLimit, int minLimit, int maxLimit, MeterRegistry meterRegistry) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.limit = initialLimit;
+            Gauge.builder("admission.limit", this, limiter -> limiter.limit)
+                    .tag("class", name)
+                    .register(meterRegistry);
+            Gauge.builder("admission.in.flight", inFlight, AtomicInteger::get)
+                    .tag("class", name)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("admission.rejected")
+                    .tag("class", name)
+                    .register(meterRegistry);
+        }
+
+        public boolean tryAcquire() {
+            int current = inFlight.incrementAndGet();
+            if (current > limit) {
+                inFlight.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            peakInFlight.accumulateAndGet(current, Math::max);
+            return true;
+        }
+
+        public void release() {
+            inFlight.decrementAndGet();
+        }
+
+        private void adjust(boolean congested, double backoffRatio) {
+            int peak = peakInFlight.getAndSet(inFlight.get());
+            if (congested) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+            } else if (peak >= limit && limit < maxLimit) {
+                // only grow a limit that was actually reached, otherwise it drifts up while idle
+                limit++;
+            }
+        }
+    }
+}
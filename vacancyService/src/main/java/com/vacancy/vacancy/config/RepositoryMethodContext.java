@@ -0,0 +1,46 @@
+package com.vacancy.vacancy.config;
+
+/**
+ * Which repository method the current thread is executing, plus what its statements did so far.
+ * Statements issued outside a repository call (JdbcTemplate, commits outside repositories) are reported as "other".
+ */
+final class RepositoryMethodContext {
+
+    static final String OTHER = "other";
+
+    private static final ThreadLocal<RepositoryMethodContext> CURRENT = new ThreadLocal<>();
+
+    final String method;
+    int statements;
+    long rowsRead;
+
+    private RepositoryMethodContext(String method) {
+        this.method = method;
+    }
+
+    /**
+     * @return the new context, or {@code null} when a repository method is already running on this thread
+     *         (nested calls are attributed to the outermost one)
+     */
+    static RepositoryMethodContext enter(String method) {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        RepositoryMethodContext context = new RepositoryMethodContext(method);
+        CURRENT.set(context);
+        return context;
+    }
+
+    static void exit() {
+        CURRENT.remove();
+    }
+
+    static RepositoryMethodContext current() {
+        return CURRENT.get();
+    }
+
+    static String currentMethod() {
+        RepositoryMethodContext context = CURRENT.get();
+        return context == null ? OTHER : context.method;
+    }
+}
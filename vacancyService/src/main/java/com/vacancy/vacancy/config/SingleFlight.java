@@ -0,0 +1,62 @@
+package com.vacancy.vacancy.config;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Concurrent calls for one key wait for the first caller's load instead of making their own, its result or
+ * exception is handed to all of them. The load runs outside any lock: blocking inside Cache.get or
+ * ConcurrentHashMap.compute would pin virtual threads to their carrier and serialize unrelated keys that
+ * share a hash bin. Counts loads in {@code singleflight.loads} with outcome "executed" or "coalesced" and times
+ * the executed ones in {@code singleflight.load.duration}.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+    private final Timer loadTime;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executed = meterRegistry.counter("singleflight.loads", "name", name, "outcome", "executed");
+        this.coalesced = meterRegistry.counter("singleflight.loads", "name", name, "outcome", "coalesced");
+        this.loadTime = Timer.builder("singleflight.load.duration")
+                .description("Time of the loads that ran, coalesced callers only wait for them")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public V run(K key, Supplier<V> load) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+        executed.increment();
+        try {
+            V result = loadTime.record(load);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.vacancy.vacancy.config;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * SQL metrics instead of spring.jpa.show-sql: the DataSource is wrapped by datasource-proxy and every
+ * repository call marks its thread, so statements can be attributed to the repository method that issued them.
+ */
+@Configuration
+public class SqlMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor sqlMetricsDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${sql.metrics.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${sql.metrics.slow-sample-rate:0.1}") double slowSampleRate,
+            @Value("${sql.metrics.count-rows:true}") boolean countRows) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                SqlMetricsListener listener = new SqlMetricsListener(meterRegistry.getObject(), slowThreshold,
+                        slowSampleRate);
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener);
+                if (countRows) {
+                    // every ResultSet call goes through a proxy, switch off if that shows up in profiles
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    // a statement built at runtime would otherwise add a timer with its histogram per variant; past the cap
+    // new fingerprints are not recorded and their hash shows up only in the log
+    @Bean
+    MeterFilter sqlFingerprintLimit(@Value("${sql.metrics.max-fingerprints:200}") int maxFingerprints) {
+        return MeterFilter.maximumAllowableTags("db.sql", "sql", maxFingerprints, MeterFilter.deny());
+    }
+
+    @Bean
+    static BeanPostProcessor repositoryMethodContextPostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    repositoryMethodInterceptor(meterRegistry,
+                                            repositoryInformation.getRepositoryInterface().getSimpleName()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // outermost advice, so statements flushed on the repository's own commit are still attributed to it
+    private static MethodInterceptor repositoryMethodInterceptor(ObjectProvider<MeterRegistry> meterRegistry,
+            String repository) {
+        return invocation -> {
+            String method = repository + "." + invocation.getMethod().getName();
+            RepositoryMethodContext context = RepositoryMethodContext.enter(method);
+            if (context == null) {
+                return invocation.proceed();
+            }
+            try {
+                return invocation.proceed();
+            } finally {
+                RepositoryMethodContext.exit();
+                MeterRegistry registry = meterRegistry.getObject();
+                DistributionSummary.builder("db.repository.statements")
+                        .description("JDBC statements per repository call")
+                        .tag("method", method)
+                        .register(registry)
+                        .record(context.statements);
+                DistributionSummary.builder("db.repository.rows.read")
+                        .description("Result set rows read per repository call")
+                        .tag("method", method)
+                        .register(registry)
+                        .record(context.rowsRead);
+            }
+        };
+    }
+}
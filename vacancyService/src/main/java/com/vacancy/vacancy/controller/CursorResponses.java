@@ -0,0 +1,26 @@
+package com.vacancy.vacancy.controller;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import com.vacancy.vacancy.model.dto.Cursor;
+
+final class CursorResponses {
+
+    private CursorResponses() {
+    }
+
+    // the cursor of the last row goes to X-Next-Cursor only when there is a next page
+    static <T> ResponseEntity<List<T>> of(Slice<T> slice, Function<T, Cursor> cursorOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext()) {
+            List<T> content = slice.getContent();
+            headers.add(Cursor.NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)).encode());
+        }
+        return ResponseEntity.ok().headers(headers).body(slice.getContent());
+    }
+}
@@ -0,0 +1,73 @@
+package com.vacancy.vacancy.controller;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.ETag;
+
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String strong(long version) {
+        return "\"" + version + "\"";
+    }
+
+    // a page is unchanged while it holds the same rows in the same order at the same versions
+    static <T> String weak(List<T> items, ToLongFunction<T> id, ToLongFunction<T> version) {
+        ByteBuffer buffer = ByteBuffer.allocate(items.size() * 2 * Long.BYTES);
+        return weak(buffer, items, id, version);
+    }
+
+    // for pages sent with X-Total-Count: a row added or removed on a later page changes the count only
+    static <T> String weak(List<T> items, long total, ToLongFunction<T> id, ToLongFunction<T> version) {
+        ByteBuffer buffer = ByteBuffer.allocate((items.size() * 2 + 1) * Long.BYTES).putLong(total);
+        return weak(buffer, items, id, version);
+    }
+
+    private static <T> String weak(ByteBuffer buffer, List<T> items, ToLongFunction<T> id,
+            ToLongFunction<T> version) {
+        for (T item : items) {
+            buffer.putLong(id.applyAsLong(item)).putLong(version.applyAsLong(item));
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // null when the update is unconditional: no If-Match or If-Match: *. Otherwise the update may go ahead if the
+    // current version is any of the listed ones; weak and foreign tags never match (strong comparison), so an
+    // empty set always fails the precondition
+    static @Nullable Set<Long> expectedVersions(@Nullable String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.get(0).isWildcard()) {
+            return null;
+        }
+        Set<Long> versions = new HashSet<>();
+        for (ETag tag : tags) {
+            if (tag.weak() || tag.isWildcard()) {
+                continue;
+            }
+            try {
+                versions.add(Long.parseLong(tag.tag()));
+            } catch (NumberFormatException e) {
+                // not one of ours
+            }
+        }
+        return versions;
+    }
+}
@@ -0,0 +1,29 @@
+package com.vacancy.vacancy.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.vacancy.vacancy.service.UserVacancyResponseService;
+
+import io.swagger.v3.oas.annotations.Hidden;
+import lombok.RequiredArgsConstructor;
+
+// calls between services only: the gateway routes /api/vacancies and /vacancy, not /internal
+@Hidden
+@RestController
+@RequestMapping("/internal/vacancies")
+@RequiredArgsConstructor
+public class InternalController {
+
+    private final UserVacancyResponseService responseService;
+
+    // called by user-service when a user is deleted
+    @DeleteMapping("/responses/users/{userId}/cache")
+    public ResponseEntity<Void> forgetUser(@PathVariable Long userId) {
+        responseService.forgetUser(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,19 +1,34 @@
 package com.vacancy.vacancy.controller;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
-import org.modelmapper.ModelMapper;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.Cursor;
+import com.vacancy.vacancy.model.dto.VacancyBatchDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyFacetsDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyFilter;
 import com.vacancy.vacancy.model.dto.VacancyDtoIn;
+import com.vacancy.vacancy.model.dto.VacancyDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyMapper;
+import com.vacancy.vacancy.service.VacancyImportService;
 import com.vacancy.vacancy.service.VacancyService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,48 +39,126 @@ import lombok.RequiredArgsConstructor;
 public class VacancyController {
 
     private final VacancyService vacancyService;
-    private final ModelMapper modelMapper;
+    private final VacancyImportService vacancyImportService;
+    private final VacancyMapper vacancyMapper;
 
-    @Operation(summary = "Получить все вакансии")
+    @Operation(summary = "Получить все вакансии", description = "С параметром after (пустым для первой страницы) "
+            + "работает в режиме курсора: без подсчета общего количества, следующий курсор в заголовке X-Next-Cursor")
     @GetMapping
-    public ResponseEntity<List<Vacancy>> getAllVacancies(
+    public ResponseEntity<List<VacancyDtoOut>> getAllVacancies(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "50") int size) {
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after,
+            @ParameterObject VacancyFilter filter) {
 
-        Page<Vacancy> vacancyPage = vacancyService.getAllVacancies(page, size);
+        if (after != null) {
+            Cursor cursor = Cursor.decode(after);
+            Slice<Vacancy> slice = vacancyService.getVacanciesAfter(filter, cursor == null ? 0 : cursor.getId(), size);
+            return withETag(CursorResponses.of(slice, vac -> Cursor.ofId(vac.getId())));
+        }
+
+        Page<Vacancy> vacancyPage = vacancyService.getAllVacancies(filter, page, size);
 
         HttpHeaders headers = new HttpHeaders();
         headers.add("X-Total-Count", String.valueOf(vacancyPage.getTotalElements()));
 
-        return ResponseEntity.ok().headers(headers).body(vacancyPage.getContent());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(ETags.weak(vacancyPage.getContent(), vacancyPage.getTotalElements(), Vacancy::getId,
+                        Vacancy::getVersion))
+                .body(vacancyMapper.toDto(vacancyPage.getContent()));
+    }
+
+    @Operation(summary = "Получить вакансии по списку id", description = "До 200 id через запятую. Вакансии "
+            + "возвращаются в порядке запроса, несуществующие id перечислены в missing_ids")
+    @GetMapping(params = "ids")
+    public ResponseEntity<VacancyBatchDtoOut> getVacanciesByIds(@RequestParam List<Long> ids) {
+        return batch(ids);
+    }
+
+    @Operation(summary = "Получить вакансии по списку id",
+            description = "То же, что GET /api/vacancies?ids=..., но список id передается в теле запроса")
+    @PostMapping("/batch")
+    public ResponseEntity<VacancyBatchDtoOut> getVacanciesByIdsBatch(@RequestBody List<Long> ids) {
+        return batch(ids);
+    }
+
+    @Operation(summary = "Полнотекстовый поиск вакансий",
+            description = "Поиск по названию и описанию, результаты отсортированы по релевантности")
+    @GetMapping("/search")
+    public ResponseEntity<List<VacancyDtoOut>> searchVacancies(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size,
+            @ParameterObject VacancyFilter filter) {
+        return withETag(ResponseEntity.ok(vacancyService.searchVacancies(q, filter, page, size)));
+    }
+
+    @Operation(summary = "Количество вакансий по городам и диапазонам зарплат",
+            description = "Принимает те же фильтры, что и список вакансий")
+    @GetMapping("/facets")
+    public ResponseEntity<VacancyFacetsDtoOut> getVacancyFacets(@ParameterObject VacancyFilter filter) {
+        return ResponseEntity.ok(vacancyService.getVacancyFacets(filter));
+    }
+
+    @Operation(summary = "Выгрузить все вакансии",
+            description = "Все вакансии в формате NDJSON (по одной на строку), отсортированные по id")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportVacancies() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(vacancyService::exportVacancies);
     }
 
-    @Operation(summary = "Получить вакансию по id")
+    @Operation(summary = "Получить вакансию по id", description = "Возвращает ETag с версией вакансии, "
+            + "на запрос с актуальным If-None-Match отвечает 304")
     @GetMapping("/{vacancyId}")
-    public ResponseEntity<Vacancy> getVacancyById(@PathVariable Long vacancyId) {
-        return ResponseEntity.ok(vacancyService.getVacancyById(vacancyId));
+    public ResponseEntity<VacancyDtoOut> getVacancyById(@PathVariable Long vacancyId) {
+        // served from the vacancy cache, the If-None-Match check needs no query and a 304 skips serialization
+        Vacancy vacancy = vacancyService.getVacancyById(vacancyId);
+        return ResponseEntity.ok().eTag(ETags.strong(vacancy.getVersion())).body(vacancyMapper.toDto(vacancy));
     }
 
-    @Operation(summary = "Получить все вакансии по id организации")
+    @Operation(summary = "Получить вакансии организации", description = "Сначала новые. "
+            + "Курсор следующей страницы возвращается в заголовке X-Next-Cursor и передается в параметре after")
     @GetMapping("/organization/{organizationId}")
-    public ResponseEntity<List<Vacancy>> getVacancyByOrganization(@PathVariable Long organizationId) {
-        return ResponseEntity.ok(vacancyService.getVacanciesByOrganization(organizationId));
+    public ResponseEntity<List<VacancyDtoOut>> getVacancyByOrganization(
+            @PathVariable Long organizationId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after) {
+        Cursor cursor = Cursor.decode(after);
+        Slice<Vacancy> slice = vacancyService.getVacanciesByOrganization(organizationId,
+                cursor == null ? null : cursor.getId(), size);
+        return withETag(CursorResponses.of(slice, vac -> Cursor.ofId(vac.getId())));
     }
 
     @Operation(summary = "Создать вакансию")
     @PostMapping
-    public ResponseEntity<Vacancy> createVacancy(@Valid @RequestBody VacancyDtoIn vacancy) {
-        Vacancy vac = modelMapper.map(vacancy, Vacancy.class);
-        return ResponseEntity.status(HttpStatus.CREATED).body(vacancyService.createVacancy(vac));
+    public ResponseEntity<VacancyDtoOut> createVacancy(@Valid @RequestBody VacancyDtoIn vacancy) {
+        Vacancy vac = vacancyMapper.toEntity(vacancy);
+        return ResponseEntity.status(HttpStatus.CREATED).body(vacancyMapper.toDto(vacancyService.createVacancy(vac)));
+    }
+
+    @Operation(summary = "Массовая загрузка вакансий",
+            description = "Принимает вакансии в формате NDJSON (по одной на строку) и построчно возвращает результат")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void importVacancies(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        vacancyImportService.importVacancies(request.getInputStream(), response.getOutputStream());
     }
 
-    @Operation(summary = "Обновить вакансию")
+    @Operation(summary = "Обновить вакансию", description = "С заголовком If-Match обновляет только одну из указанных версий, "
+            + "иначе отвечает 412")
     @PutMapping("/{vacancyId}")
-    public ResponseEntity<Vacancy> updateVacancy(
+    public ResponseEntity<VacancyDtoOut> updateVacancy(
             @PathVariable Long vacancyId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody VacancyDtoIn vacancy) {
-        Vacancy vac = modelMapper.map(vacancy, Vacancy.class);
-        return ResponseEntity.ok(vacancyService.updateVacancy(vacancyId, vac));
+        Vacancy vac = vacancyMapper.toEntity(vacancy);
+        Vacancy updated = vacancyService.updateVacancy(vacancyId, vac, ETags.expectedVersions(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.strong(updated.getVersion())).body(vacancyMapper.toDto(updated));
     }
 
     @Operation(summary = "Удалить вакансию")
@@ -75,4 +168,20 @@ public class VacancyController {
         return ResponseEntity.noContent().build();
     }
 
+    private ResponseEntity<VacancyBatchDtoOut> batch(List<Long> ids) {
+        List<Vacancy> found = vacancyService.getVacanciesByIds(ids);
+        Set<Long> foundIds = found.stream().map(Vacancy::getId).collect(Collectors.toSet());
+        List<Long> missingIds = ids.stream().distinct().filter(id -> !foundIds.contains(id)).toList();
+        return ResponseEntity.ok()
+                .eTag(ETags.weak(found, Vacancy::getId, Vacancy::getVersion))
+                .body(new VacancyBatchDtoOut(vacancyMapper.toDto(found), missingIds));
+    }
+
+    private ResponseEntity<List<VacancyDtoOut>> withETag(ResponseEntity<List<Vacancy>> response) {
+        return ResponseEntity.ok()
+                .headers(response.getHeaders())
+                .eTag(ETags.weak(response.getBody(), Vacancy::getId, Vacancy::getVersion))
+                .body(vacancyMapper.toDto(response.getBody()));
+    }
+
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.vacancy.vacancy.exceptions.RequestException;
 import com.vacancy.vacancy.model.UserVacancyResponse;
+import com.vacancy.vacancy.model.dto.Cursor;
 import com.vacancy.vacancy.service.UserVacancyResponseService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,14 +26,17 @@ public class VacancyResponseController {
 
     private final UserVacancyResponseService responseService;
 
-    @Operation(summary = "Откликнуться на вакансию")
+    @Operation(summary = "Откликнуться на вакансию",
+            description = "202, если отклик поставлен в очередь на запись (режим отложенной записи)")
     @PutMapping
     public ResponseEntity<Void> respondToVacancy(
             @RequestParam(value = "vacancyId") Long vacancyId,
             @RequestParam(value = "userId") Long userId) {
 
-        responseService.respondToVacancy(vacancyId, userId);
-        return ResponseEntity.ok().build();
+        if (responseService.respondToVacancy(vacancyId, userId)) {
+            return ResponseEntity.ok().build();
+        }
+        return ResponseEntity.accepted().build();
     }
 
     @Operation(summary = "Удалить отклик")
@@ -45,22 +49,31 @@ public class VacancyResponseController {
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Получить ответы по userId или vacancyId")
+    @Operation(summary = "Получить ответы по userId или vacancyId", description = "Сначала новые. "
+            + "Курсор следующей страницы возвращается в заголовке X-Next-Cursor и передается в параметре after")
     @GetMapping
     public ResponseEntity<List<UserVacancyResponse>> getAllVacancyResponses(
             @RequestParam(value = "vacancyId", required = false) Long vacancyId,
-            @RequestParam(value = "userId", required = false) Long userId) {
+            @RequestParam(value = "userId", required = false) Long userId,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String after) {
 
         if (vacancyId != null && userId != null) {
             return ResponseEntity.ok(responseService.getVacancyResponsesForUser(userId, vacancyId));
         } else if (vacancyId != null) {
-            return ResponseEntity.ok(responseService.getVacancyResponses(vacancyId));
+            return CursorResponses.of(responseService.getVacancyResponses(vacancyId, Cursor.decode(after), size),
+                    VacancyResponseController::cursorOf);
         } else if (userId != null) {
-            return ResponseEntity.ok(responseService.getUserResponses(userId));
+            return CursorResponses.of(responseService.getUserResponses(userId, Cursor.decode(after), size),
+                    VacancyResponseController::cursorOf);
         }
 
         throw new RequestException(HttpStatus.BAD_REQUEST,
                 "Необходим хотя бы один из параметров: vacancyId и userId");
     }
 
+    private static Cursor cursorOf(UserVacancyResponse response) {
+        return Cursor.of(response.getResponseDate(), response.getId());
+    }
+
 }
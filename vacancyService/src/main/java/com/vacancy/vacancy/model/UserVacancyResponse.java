@@ -10,6 +10,7 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AccessLevel;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,7 +18,9 @@ import lombok.NoArgsConstructor;
 @Data
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @Entity
-@Table(name = "user_vacancy_response")
+@Table(name = "user_vacancy_response",
+        uniqueConstraints = @UniqueConstraint(name = "user_vacancy_response_user_vacancy_key",
+                columnNames = { "user_id", "vacancy_id" }))
 public class UserVacancyResponse {
 
     @Id
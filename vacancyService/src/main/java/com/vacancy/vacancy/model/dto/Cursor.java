@@ -0,0 +1,75 @@
+package com.vacancy.vacancy.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.http.HttpStatus;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opaque keyset-pagination token: the sort key and id of the last row a client has seen.
+ * On the wire it is an url-safe base64 string, so clients must not rely on its contents.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class Cursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final char SEPARATOR = '|';
+
+    private final @Nullable String sortKey;
+    private final long id;
+
+    public static Cursor ofId(long id) {
+        return new Cursor(null, id);
+    }
+
+    public static Cursor of(String sortKey, long id) {
+        return new Cursor(sortKey, id);
+    }
+
+    public static Cursor of(OffsetDateTime sortKey, long id) {
+        return new Cursor(sortKey.toString(), id);
+    }
+
+    public OffsetDateTime getSortKeyAsDateTime() {
+        try {
+            return OffsetDateTime.parse(sortKey);
+        } catch (NullPointerException | DateTimeParseException e) {
+            throw new RequestException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
+    }
+
+    public String encode() {
+        String raw = sortKey == null ? String.valueOf(id) : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return decoded cursor or {@code null} for an empty token (start from the first row)
+     */
+    public static @Nullable Cursor decode(@Nullable String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) {
+                return new Cursor(null, Long.parseLong(raw));
+            }
+            return new Cursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new RequestException(HttpStatus.BAD_REQUEST, "Некорректный курсор");
+        }
+    }
+}
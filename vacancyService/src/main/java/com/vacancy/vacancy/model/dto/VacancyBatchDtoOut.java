@@ -0,0 +1,20 @@
+package com.vacancy.vacancy.model.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Result of a multi-get: the found vacancies in request order and the requested ids that do not exist.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@AllArgsConstructor
+@Data
+public class VacancyBatchDtoOut {
+    private List<VacancyDtoOut> vacancies;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,17 @@
+package com.vacancy.vacancy.model.dto;
+
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Data
+public class VacancyDtoOut {
+    private Long id;
+    private String title;
+    private String description;
+    private Integer salary;
+    private String city;
+    private Long organizationId;
+}
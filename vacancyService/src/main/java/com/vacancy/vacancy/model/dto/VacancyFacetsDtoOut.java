@@ -0,0 +1,18 @@
+package com.vacancy.vacancy.model.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@NoArgsConstructor
+@Data
+public class VacancyFacetsDtoOut {
+    private Map<String, Long> cities = new LinkedHashMap<>();
+    private Map<String, Long> salaryBuckets = new LinkedHashMap<>();
+}
@@ -0,0 +1,18 @@
+package com.vacancy.vacancy.model.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Optional filters of vacancy listings, bound from query parameters. Null fields are not applied.
+ */
+@Data
+@NoArgsConstructor
+public class VacancyFilter {
+
+    private String city;
+    private Integer salaryMin;
+    private Integer salaryMax;
+    private Long organizationId;
+
+}
@@ -0,0 +1,30 @@
+package com.vacancy.vacancy.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.annotation.JsonNaming;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Result of one NDJSON line of a bulk import: either the id of the created vacancy or an error.
+ */
+@JsonNaming(PropertyNamingStrategies.SnakeCaseStrategy.class)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Data
+public class VacancyImportResultDtoOut {
+    private long line;
+    private Long id;
+    private String error;
+
+    public static VacancyImportResultDtoOut created(long line, long id) {
+        return new VacancyImportResultDtoOut(line, id, null);
+    }
+
+    public static VacancyImportResultDtoOut failed(long line, String error) {
+        return new VacancyImportResultDtoOut(line, null, error);
+    }
+}
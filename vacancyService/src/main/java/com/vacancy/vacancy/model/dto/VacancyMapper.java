@@ -0,0 +1,23 @@
+package com.vacancy.vacancy.model.dto;
+
+import java.util.List;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import com.vacancy.vacancy.model.Vacancy;
+
+// the implementation is generated at compile time, a field added on one side only fails the build
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING, unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface VacancyMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Vacancy toEntity(VacancyDtoIn dto);
+
+    VacancyDtoOut toDto(Vacancy vacancy);
+
+    List<VacancyDtoOut> toDto(List<Vacancy> vacancies);
+}
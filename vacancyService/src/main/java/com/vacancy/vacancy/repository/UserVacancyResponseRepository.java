@@ -1,16 +1,69 @@
 package com.vacancy.vacancy.repository;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.vacancy.vacancy.model.UserVacancyResponse;
 
+import jakarta.persistence.QueryHint;
+
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
 public interface UserVacancyResponseRepository extends CrudRepository<UserVacancyResponse, Long> {
-    List<UserVacancyResponse> findByUserId(Long userId);
-    List<UserVacancyResponse> findByVacancyId(Long vacancyId);
+    // newest first; the *Before variants continue after the (response_date, id) of the previous page. They are
+    // native for the row-value comparison: Postgres turns it into one range scan of the V6 index, the expanded
+    // "date < d OR (date = d AND id < i)" is usually not used as an index bound
+    Slice<UserVacancyResponse> findByUserIdOrderByResponseDateDescIdDesc(Long userId, Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM user_vacancy_response r
+            WHERE r.user_id = :userId
+              AND (r.response_date, r.id) < (:responseDate, :id)
+            ORDER BY r.response_date DESC, r.id DESC
+            """, nativeQuery = true)
+    Slice<UserVacancyResponse> findByUserIdBefore(@Param("userId") Long userId,
+            @Param("responseDate") OffsetDateTime responseDate,
+            @Param("id") long id,
+            Pageable pageable);
+
+    Slice<UserVacancyResponse> findByVacancyIdOrderByResponseDateDescIdDesc(Long vacancyId, Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM user_vacancy_response r
+            WHERE r.vacancy_id = :vacancyId
+              AND (r.response_date, r.id) < (:responseDate, :id)
+            ORDER BY r.response_date DESC, r.id DESC
+            """, nativeQuery = true)
+    Slice<UserVacancyResponse> findByVacancyIdBefore(@Param("vacancyId") Long vacancyId,
+            @Param("responseDate") OffsetDateTime responseDate,
+            @Param("id") long id,
+            Pageable pageable);
+
     List<UserVacancyResponse> findByUserIdAndVacancyId(Long userId, Long vacancyId);
     void deleteByUserIdAndVacancyId(Long userId, Long vacancyId);
+
+    // one statement instead of find + delete + insert; the SELECT doubles as the vacancy existence check,
+    // so 0 means there is no such vacancy. Relies on the unique (user_id, vacancy_id) constraint (V5).
+    // The query space keeps Hibernate from invalidating every second-level cache region on each response
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_vacancy_response"))
+    @Query(value = """
+            INSERT INTO user_vacancy_response (user_id, vacancy_id, response_date)
+            SELECT :userId, v.id, now()
+            FROM vacancy v
+            WHERE v.id = :vacancyId
+            ON CONFLICT (user_id, vacancy_id) DO UPDATE SET response_date = EXCLUDED.response_date
+            """, nativeQuery = true)
+    int upsertResponse(@Param("userId") long userId, @Param("vacancyId") long vacancyId);
 }
@@ -0,0 +1,11 @@
+package com.vacancy.vacancy.repository;
+
+/**
+ * One row of the grouped facet query: either a city group or a salary bucket group.
+ */
+public interface VacancyFacetRow {
+    boolean getSalaryGroup();
+    String getCity();
+    Integer getSalaryBucket();
+    long getTotal();
+}
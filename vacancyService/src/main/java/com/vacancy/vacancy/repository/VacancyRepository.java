@@ -4,13 +4,81 @@ package com.vacancy.vacancy.repository;
 import com.vacancy.vacancy.model.Vacancy;
 
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
 
 @Repository
-public interface VacancyRepository extends CrudRepository<Vacancy, Long>, PagingAndSortingRepository<Vacancy, Long> {
-    List<Vacancy> findByOrganizationId(Long organizationId);
+public interface VacancyRepository extends CrudRepository<Vacancy, Long>, PagingAndSortingRepository<Vacancy, Long>,
+        JpaSpecificationExecutor<Vacancy> {
+    // newest first, walks the (organization_id, id) index from V3 backwards;
+    // results are kept in the query cache (ids only, rows come from the "vacancy" region)
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "vacancy-by-organization") })
+    Slice<Vacancy> findByOrganizationIdOrderByIdDesc(Long organizationId, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = "vacancy-by-organization") })
+    Slice<Vacancy> findByOrganizationIdAndIdLessThanOrderByIdDesc(Long organizationId, long id, Pageable pageable);
+
+    // server-side cursor: the driver pulls 500 rows at a time instead of the whole table,
+    // must be consumed inside a transaction (PostgreSQL ignores the fetch size in autocommit).
+    // A full dump must not flush the second-level cache, hence cache mode IGNORE
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = AvailableHints.HINT_CACHE_MODE, value = "IGNORE") })
+    Stream<Vacancy> streamAllByOrderById();
+
+    // search_vector is a generated column (V2 migration) backed by a GIN index
+    @Query(value = """
+            SELECT v.id, v.title, v.description, v.salary, v.city, v.organization_id, v.version
+            FROM vacancy v, websearch_to_tsquery('russian', :query) q
+            WHERE v.search_vector @@ q
+              AND (CAST(:city AS text) IS NULL OR v.city = CAST(:city AS text))
+              AND (CAST(:salaryMin AS integer) IS NULL OR v.salary >= CAST(:salaryMin AS integer))
+              AND (CAST(:salaryMax AS integer) IS NULL OR v.salary <= CAST(:salaryMax AS integer))
+              AND (CAST(:organizationId AS bigint) IS NULL OR v.organization_id = CAST(:organizationId AS bigint))
+            ORDER BY ts_rank(v.search_vector, q) DESC, v.id
+            """, nativeQuery = true)
+    List<Vacancy> search(@Param("query") String query,
+            @Param("city") String city,
+            @Param("salaryMin") Integer salaryMin,
+            @Param("salaryMax") Integer salaryMax,
+            @Param("organizationId") Long organizationId,
+            Pageable pageable);
+
+    // both facets in one pass: rows of the city grouping set have "salaryGroup" = false;
+    // salary buckets are 50000 wide, the last one (4) is open-ended, see VacancyServiceImpl
+    @Query(value = """
+            SELECT GROUPING(v.city) = 1 AS "salaryGroup",
+                   v.city AS "city",
+                   LEAST(v.salary / 50000, 4) AS "salaryBucket",
+                   count(*) AS "total"
+            FROM vacancy v
+            WHERE (CAST(:city AS text) IS NULL OR v.city = CAST(:city AS text))
+              AND (CAST(:salaryMin AS integer) IS NULL OR v.salary >= CAST(:salaryMin AS integer))
+              AND (CAST(:salaryMax AS integer) IS NULL OR v.salary <= CAST(:salaryMax AS integer))
+              AND (CAST(:organizationId AS bigint) IS NULL OR v.organization_id = CAST(:organizationId AS bigint))
+            GROUP BY GROUPING SETS ((v.city), (LEAST(v.salary / 50000, 4)))
+            ORDER BY "total" DESC
+            """, nativeQuery = true)
+    List<VacancyFacetRow> countFacets(@Param("city") String city,
+            @Param("salaryMin") Integer salaryMin,
+            @Param("salaryMax") Integer salaryMax,
+            @Param("organizationId") Long organizationId);
 }
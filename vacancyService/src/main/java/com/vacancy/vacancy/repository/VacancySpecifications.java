@@ -0,0 +1,40 @@
+package com.vacancy.vacancy.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyFilter;
+
+import jakarta.persistence.criteria.Predicate;
+
+public final class VacancySpecifications {
+
+    private VacancySpecifications() {
+    }
+
+    public static Specification<Vacancy> matching(VacancyFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCity() != null) {
+                predicates.add(cb.equal(root.get("city"), filter.getCity()));
+            }
+            if (filter.getSalaryMin() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("salary"), filter.getSalaryMin()));
+            }
+            if (filter.getSalaryMax() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("salary"), filter.getSalaryMax()));
+            }
+            if (filter.getOrganizationId() != null) {
+                predicates.add(cb.equal(root.get("organizationId"), filter.getOrganizationId()));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    public static Specification<Vacancy> idGreaterThan(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+}
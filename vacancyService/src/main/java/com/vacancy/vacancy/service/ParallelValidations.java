@@ -0,0 +1,116 @@
+package com.vacancy.vacancy.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Runs independent request validations concurrently, the local one included, so the request waits for the
+ * slowest check only and the first failure, from whichever check, cancels the remaining ones and is rethrown
+ * as is. Checks run on a bounded pool of platform threads, or on virtual threads when
+ * {@code spring.threads.virtual.enabled} is set.
+ */
+@Component
+public class ParallelValidations {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    public ParallelValidations(MeterRegistry meterRegistry,
+            @Value("${vacancy.validation.pool-size:32}") int poolSize,
+            @Value("${vacancy.validation.queue-capacity:256}") int queueCapacity,
+            @Value("${vacancy.validation.timeout:3s}") Duration timeout,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.timeout = timeout;
+        if (virtualThreads) {
+            // a check mostly waits on a remote call, one virtual thread each instead of a capped pool
+            this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("validation-", 1).factory());
+        } else {
+            AtomicInteger threads = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    task -> {
+                        Thread thread = new Thread(task, "validation-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+        }
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "validation");
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T run(Supplier<T> local, Runnable... remote) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletionService<Object> completion = new ExecutorCompletionService<>(executor);
+        List<Future<Object>> pending = new ArrayList<>(remote.length + 1);
+        Future<Object> localCheck;
+        try {
+            localCheck = completion.submit(local::get);
+            pending.add(localCheck);
+            for (Runnable check : remote) {
+                pending.add(completion.submit(check, null));
+            }
+        } catch (RejectedExecutionException e) {
+            cancel(pending);
+            throw new RequestException(HttpStatus.SERVICE_UNAVAILABLE, "Сервис перегружен, повторите позже");
+        }
+
+        try {
+            // in completion order, a check that fails fast ends the request while slower ones still run
+            for (int i = 0; i < pending.size(); i++) {
+                Future<Object> done = completion.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    throw new RequestException(HttpStatus.GATEWAY_TIMEOUT, "Превышено время ожидания проверки");
+                }
+                done.get();
+            }
+            return (T) localCheck.get();
+        } catch (ExecutionException e) {
+            cancel(pending);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(pending);
+            throw new RequestException(HttpStatus.SERVICE_UNAVAILABLE, "Запрос прерван");
+        } catch (RuntimeException e) {
+            cancel(pending);
+            throw e;
+        }
+    }
+
+    private static void cancel(List<Future<Object>> pending) {
+        pending.forEach(future -> future.cancel(true));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
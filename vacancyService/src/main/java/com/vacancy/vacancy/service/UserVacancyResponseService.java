@@ -3,14 +3,22 @@ package com.vacancy.vacancy.service;
 
 import java.util.List;
 
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.Slice;
+
 import com.vacancy.vacancy.model.UserVacancyResponse;
+import com.vacancy.vacancy.model.dto.Cursor;
 
 public interface UserVacancyResponseService {
-    List<UserVacancyResponse> getUserResponses(long userId);
-    List<UserVacancyResponse> getVacancyResponses(long vacancyId);
+    Slice<UserVacancyResponse> getUserResponses(long userId, @Nullable Cursor after, int size);
+    Slice<UserVacancyResponse> getVacancyResponses(long vacancyId, @Nullable Cursor after, int size);
     List<UserVacancyResponse> getVacancyResponsesForUser(long userId, long vacancyId);
 
-    void respondToVacancy(long vacancyId, long userId);
+    /**
+     * @return {@code true} if the response is stored, {@code false} if it is queued for a batched write
+     */
+    boolean respondToVacancy(long vacancyId, long userId);
     void removeResponseFromVacancy(long vacancyId, long userId);
+    void forgetUser(long userId);
 
 }
@@ -1,7 +1,12 @@
 package com.vacancy.vacancy.service;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.jetbrains.annotations.Nullable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,8 +14,8 @@ import org.springframework.transaction.annotation.Transactional;
 import com.vacancy.vacancy.client.Clients;
 import com.vacancy.vacancy.exceptions.RequestException;
 import com.vacancy.vacancy.model.UserVacancyResponse;
+import com.vacancy.vacancy.model.dto.Cursor;
 import com.vacancy.vacancy.repository.UserVacancyResponseRepository;
-import com.vacancy.vacancy.repository.VacancyRepository;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,17 +24,28 @@ import lombok.RequiredArgsConstructor;
 public class UserVacancyResponseServiceImpl implements UserVacancyResponseService {
 
     private final UserVacancyResponseRepository responseRepository;
-    private final VacancyRepository vacancyRepository;
     private final Clients clients;
+    private final VacancyService vacancyService;
+    private final ParallelValidations validations;
+    private final Optional<UserVacancyResponseWriteBehind> writeBehind;
 
     @Transactional(readOnly = true)
-    public List<UserVacancyResponse> getUserResponses(long userId) {
-        return responseRepository.findByUserId(userId);
+    public Slice<UserVacancyResponse> getUserResponses(long userId, @Nullable Cursor after, int size) {
+        Pageable pageable = PageRequest.of(0, Math.min(size, 50));
+        if (after == null) {
+            return responseRepository.findByUserIdOrderByResponseDateDescIdDesc(userId, pageable);
+        }
+        return responseRepository.findByUserIdBefore(userId, after.getSortKeyAsDateTime(), after.getId(), pageable);
     }
 
     @Transactional(readOnly = true)
-    public List<UserVacancyResponse> getVacancyResponses(long vacancyId) {
-        return responseRepository.findByVacancyId(vacancyId);
+    public Slice<UserVacancyResponse> getVacancyResponses(long vacancyId, @Nullable Cursor after, int size) {
+        Pageable pageable = PageRequest.of(0, Math.min(size, 50));
+        if (after == null) {
+            return responseRepository.findByVacancyIdOrderByResponseDateDescIdDesc(vacancyId, pageable);
+        }
+        return responseRepository.findByVacancyIdBefore(vacancyId, after.getSortKeyAsDateTime(), after.getId(),
+                pageable);
     }
 
     @Transactional(readOnly = true)
@@ -42,20 +58,27 @@ public class UserVacancyResponseServiceImpl implements UserVacancyResponseServic
         responseRepository.deleteByUserIdAndVacancyId(userId, vacancyId);
     }
 
-    public void respondToVacancy(long vacancyId, long userId) {
-        try {
-            clients.getUserById(userId);
-        } catch (Exception e) {
-            throw new RequestException(HttpStatus.NOT_FOUND, "Пользователь не найден");
+    public void forgetUser(long userId) {
+        clients.evictUser(userId);
+    }
+
+    public boolean respondToVacancy(long vacancyId, long userId) {
+        validations.run(() -> vacancyService.getVacancyById(vacancyId), () -> {
+            try {
+                clients.getUserById(userId);
+            } catch (Exception e) {
+                throw new RequestException(HttpStatus.NOT_FOUND, "Пользователь не найден");
+            }
+        });
+        if (writeBehind.isPresent()) {
+            writeBehind.get().enqueue(userId, vacancyId);
+            return false;
         }
-        if (vacancyRepository.findById(vacancyId).isEmpty()) {
+        // the vacancy may have been deleted since the (cached) check
+        if (responseRepository.upsertResponse(userId, vacancyId) == 0) {
             throw new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена");
         }
-        List<UserVacancyResponse> existing = responseRepository.findByUserIdAndVacancyId(userId, vacancyId);
-        if (!existing.isEmpty()) {
-            responseRepository.deleteAll(existing);
-        }
-        responseRepository.save(new UserVacancyResponse(userId, vacancyId));
+        return true;
     }
 
 }
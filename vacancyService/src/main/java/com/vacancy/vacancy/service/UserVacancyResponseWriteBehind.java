@@ -0,0 +1,218 @@
+package com.vacancy.vacancy.service;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffers vacancy responses in memory and writes them in batches from a single flusher thread,
+ * one multi-row upsert per batch. Responses accepted here are lost if the process dies before a flush,
+ * if their batch keeps failing, or if their vacancy is deleted before it is written.
+ */
+@Component
+@ConditionalOnProperty(name = "vacancy.responses.write-behind.enabled", havingValue = "true")
+@Slf4j
+public class UserVacancyResponseWriteBehind {
+
+    // like upsertResponse, the join with vacancy is the existence check: there is no foreign key, and a vacancy
+    // deleted after the response was validated must not get orphan rows
+    private static final String UPSERT_PREFIX = "INSERT INTO user_vacancy_response (user_id, vacancy_id, response_date) "
+            + "SELECT r.user_id, r.vacancy_id, r.response_date FROM (VALUES ";
+    private static final String UPSERT_SUFFIX = ") AS r (user_id, vacancy_id, response_date) "
+            + "JOIN vacancy v ON v.id = r.vacancy_id "
+            + "ON CONFLICT (user_id, vacancy_id) DO UPDATE SET response_date = EXCLUDED.response_date";
+    private static final Duration MAX_RETRY_DELAY = Duration.ofSeconds(1);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<PendingResponse> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration enqueueTimeout;
+    private final int maxRetries;
+
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private final Counter failed;
+    private final Counter dropped;
+    private final Counter skipped;
+
+    private final Thread flusher;
+    private volatile boolean running = true;
+    // owned by the flusher thread, drain() takes it over after join
+    private final List<PendingResponse> batch;
+
+    public UserVacancyResponseWriteBehind(JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${vacancy.responses.write-behind.queue-capacity:10000}") int queueCapacity,
+            @Value("${vacancy.responses.write-behind.batch-size:500}") int batchSize,
+            @Value("${vacancy.responses.write-behind.flush-interval:5ms}") Duration flushInterval,
+            @Value("${vacancy.responses.write-behind.enqueue-timeout:20ms}") Duration enqueueTimeout,
+            @Value("${vacancy.responses.write-behind.max-retries:10}") int maxRetries) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.enqueueTimeout = enqueueTimeout;
+        this.maxRetries = maxRetries;
+
+        meterRegistry.gauge("vacancy.responses.queue.size", queue, BlockingQueue::size);
+        this.flushTimer = Timer.builder("vacancy.responses.flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("vacancy.responses.rejected");
+        this.failed = meterRegistry.counter("vacancy.responses.flush.failed");
+        this.dropped = meterRegistry.counter("vacancy.responses.dropped");
+        this.skipped = meterRegistry.counter("vacancy.responses.skipped");
+
+        this.batch = new ArrayList<>(batchSize);
+        this.flusher = new Thread(this::flushLoop, "response-write-behind");
+        this.flusher.setDaemon(true);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.start();
+    }
+
+    public void enqueue(long userId, long vacancyId) {
+        if (!running) {
+            throw new RequestException(HttpStatus.SERVICE_UNAVAILABLE, "Сервис останавливается, повторите позже");
+        }
+        boolean accepted;
+        try {
+            // a short wait absorbs a flush in progress, a longer backlog is pushed back to the client
+            accepted = queue.offer(new PendingResponse(userId, vacancyId, OffsetDateTime.now()),
+                    enqueueTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            throw new RequestException(HttpStatus.SERVICE_UNAVAILABLE, "Слишком много откликов, повторите позже");
+        }
+    }
+
+    // a failed batch is kept and retried with a growing pause, meanwhile the queue fills up and new responses
+    // get 503; a batch that still fails after maxRetries is dropped so one bad batch cannot stall the rest
+    private void flushLoop() {
+        long retryDelay = 0;
+        int retries = 0;
+        while (running) {
+            try {
+                if (retryDelay > 0) {
+                    TimeUnit.NANOSECONDS.sleep(retryDelay);
+                }
+                if (batch.isEmpty()) {
+                    PendingResponse first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                flush(batch);
+                batch.clear();
+                retryDelay = 0;
+                retries = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                if (++retries > maxRetries) {
+                    log.error("Dropping {} queued vacancy responses after {} failed attempts: {} {}", batch.size(),
+                            retries, e.getMessage(), batch);
+                    dropped.increment(batch.size());
+                    batch.clear();
+                    retryDelay = 0;
+                    retries = 0;
+                    continue;
+                }
+                retryDelay = Math.min(Math.max(retryDelay * 2, flushInterval.toNanos()), MAX_RETRY_DELAY.toNanos());
+                log.error("Could not write {} queued vacancy responses, retrying in {} ms: {}", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(retryDelay), e.getMessage());
+            }
+        }
+    }
+
+    // no interrupt: an interrupted connection acquire or JDBC call would fail the batch in progress,
+    // the loop ends on its own within one poll timeout once running is false
+    @PreDestroy
+    void drain() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        if (flusher.isAlive()) {
+            log.warn("Response flusher did not stop in time, {} queued responses are not written", queue.size());
+            return;
+        }
+
+        while (!batch.isEmpty() || queue.drainTo(batch, batchSize) > 0) {
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                failed.increment(batch.size());
+                dropped.increment(batch.size());
+                log.error("Could not write {} queued vacancy responses on shutdown: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingResponse> batch) {
+        // one statement cannot upsert the same row twice, repeated clicks collapse to the latest one
+        Map<List<Long>, PendingResponse> latest = new LinkedHashMap<>();
+        for (PendingResponse response : batch) {
+            latest.put(List.of(response.userId(), response.vacancyId()), response);
+        }
+        List<PendingResponse> rows = new ArrayList<>(latest.values());
+
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        for (int i = 0; i < rows.size(); i++) {
+            // typed, VALUES in a subquery does not take its column types from the insert target
+            sql.append(i == 0 ? "" : ", ").append("(?::bigint, ?::bigint, ?::timestamptz)");
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        Integer written = flushTimer.record(() -> jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString());
+            int i = 1;
+            for (PendingResponse row : rows) {
+                ps.setLong(i++, row.userId());
+                ps.setLong(i++, row.vacancyId());
+                ps.setObject(i++, row.responseDate());
+            }
+            return ps;
+        }));
+        if (written != null && written < rows.size()) {
+            // vacancies deleted since the responses were accepted
+            skipped.increment(rows.size() - written);
+            log.debug("Skipped {} queued responses to deleted vacancies", rows.size() - written);
+        }
+    }
+
+    private record PendingResponse(long userId, long vacancyId, OffsetDateTime responseDate) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.vacancy.vacancy.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface VacancyImportService {
+    /**
+     * Reads vacancies as NDJSON from {@code in} and writes one NDJSON result per non-blank line to {@code out}.
+     */
+    void importVacancies(InputStream in, OutputStream out) throws IOException;
+}
@@ -0,0 +1,184 @@
+package com.vacancy.vacancy.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.vacancy.client.Clients;
+import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyDtoIn;
+import com.vacancy.vacancy.model.dto.VacancyImportResultDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyMapper;
+import com.vacancy.vacancy.repository.VacancyRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+public class VacancyImportServiceImpl implements VacancyImportService {
+
+    private final VacancyRepository vacancyRepository;
+    private final Clients clients;
+    private final ObjectMapper objectMapper;
+    private final VacancyMapper vacancyMapper;
+    private final Validator validator;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public VacancyImportServiceImpl(VacancyRepository vacancyRepository,
+            Clients clients,
+            ObjectMapper objectMapper,
+            VacancyMapper vacancyMapper,
+            Validator validator,
+            EntityManager entityManager,
+            TransactionTemplate transactionTemplate,
+            @Value("${vacancy.import.chunk-size:500}") int chunkSize) {
+        this.vacancyRepository = vacancyRepository;
+        this.clients = clients;
+        this.objectMapper = objectMapper;
+        this.vacancyMapper = vacancyMapper;
+        this.validator = validator;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+    }
+
+    public void importVacancies(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<ParsedLine> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            chunk.add(parse(lineNumber, line));
+            if (chunk.size() == chunkSize) {
+                writeResults(importChunk(chunk), out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeResults(importChunk(chunk), out);
+        }
+    }
+
+    private ParsedLine parse(long lineNumber, String line) {
+        VacancyDtoIn dto;
+        try {
+            dto = objectMapper.readValue(line, VacancyDtoIn.class);
+        } catch (JsonProcessingException e) {
+            return ParsedLine.failed(lineNumber, "Некорректный JSON: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<VacancyDtoIn>> violations = validator.validate(dto);
+        if (!violations.isEmpty()) {
+            return ParsedLine.failed(lineNumber, violations.stream()
+                    .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new ParsedLine(lineNumber, vacancyMapper.toEntity(dto), null);
+    }
+
+    private List<VacancyImportResultDtoOut> importChunk(List<ParsedLine> chunk) {
+        // all organizations of the chunk in one batch lookup instead of one call per organization
+        Set<Long> organizationIds = chunk.stream()
+                .filter(parsed -> parsed.vacancy != null)
+                .map(parsed -> parsed.vacancy.getOrganizationId())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Clients.OrganizationLookup organizations = clients.lookupOrganizations(organizationIds);
+
+        List<ParsedLine> toSave = new ArrayList<>(chunk.size());
+        for (ParsedLine parsed : chunk) {
+            if (parsed.vacancy != null && organizations.existing().contains(parsed.vacancy.getOrganizationId())) {
+                toSave.add(parsed);
+            }
+        }
+        Set<Long> unsavedLines = new HashSet<>();
+        try {
+            save(toSave.stream().map(ParsedLine::vacancy).toList());
+        } catch (DataAccessException | PersistenceException e) {
+            // the batch does not tell which row broke it: the rows are saved one by one so only that line fails
+            log.warn("Bulk import chunk of {} vacancies failed, saving them one by one: {}", toSave.size(),
+                    e.getMessage());
+            for (ParsedLine parsed : toSave) {
+                // the rolled back insert left its sequence id behind, with it save() would merge instead of persist
+                parsed.vacancy.setId(0);
+                try {
+                    save(List.of(parsed.vacancy));
+                } catch (DataAccessException | PersistenceException lineError) {
+                    log.error("Bulk import of line {} failed: {}", parsed.lineNumber, lineError.getMessage());
+                    unsavedLines.add(parsed.lineNumber);
+                }
+            }
+        }
+
+        List<VacancyImportResultDtoOut> results = new ArrayList<>(chunk.size());
+        for (ParsedLine parsed : chunk) {
+            if (parsed.error != null) {
+                results.add(VacancyImportResultDtoOut.failed(parsed.lineNumber, parsed.error));
+            } else if (organizations.unavailable().contains(parsed.vacancy.getOrganizationId())) {
+                // not a verdict on the line, it can be sent again once organization-service is back
+                results.add(VacancyImportResultDtoOut.failed(parsed.lineNumber, "Сервис организаций недоступен"));
+            } else if (!organizations.existing().contains(parsed.vacancy.getOrganizationId())) {
+                results.add(VacancyImportResultDtoOut.failed(parsed.lineNumber, "Организация не найдена"));
+            } else if (unsavedLines.contains(parsed.lineNumber)) {
+                results.add(VacancyImportResultDtoOut.failed(parsed.lineNumber, "Ошибка сохранения"));
+            } else {
+                results.add(VacancyImportResultDtoOut.created(parsed.lineNumber, parsed.vacancy.getId()));
+            }
+        }
+        return results;
+    }
+
+    // the direct flush is not exception-translated, its failures arrive as PersistenceException
+    private void save(List<Vacancy> vacancies) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                vacancyRepository.saveAll(vacancies);
+                // send the whole chunk as JDBC batches and keep the persistence context from growing
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            entityManager.clear();
+            throw e;
+        }
+    }
+
+    private void writeResults(List<VacancyImportResultDtoOut> results, OutputStream out) throws IOException {
+        for (VacancyImportResultDtoOut result : results) {
+            out.write(objectMapper.writeValueAsBytes(result));
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    private record ParsedLine(long lineNumber, Vacancy vacancy, String error) {
+        static ParsedLine failed(long lineNumber, String error) {
+            return new ParsedLine(lineNumber, null, error);
+        }
+    }
+}
@@ -1,17 +1,30 @@
 package com.vacancy.vacancy.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
 
+import org.jetbrains.annotations.Nullable;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyFacetsDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyFilter;
 
 public interface VacancyService {
     Page<Vacancy> getAllVacancies(int page, int size);
+    Page<Vacancy> getAllVacancies(VacancyFilter filter, int page, int size);
+    Slice<Vacancy> getVacanciesAfter(VacancyFilter filter, long afterId, int size);
+    List<Vacancy> searchVacancies(String query, VacancyFilter filter, int page, int size);
+    VacancyFacetsDtoOut getVacancyFacets(VacancyFilter filter);
+    void exportVacancies(OutputStream out) throws IOException;
     Vacancy getVacancyById(long id);
+    List<Vacancy> getVacanciesByIds(List<Long> ids);
     void deleteVacancy(long id);
-    Vacancy updateVacancy(long id, Vacancy vacancy);
+    Vacancy updateVacancy(long id, Vacancy vacancy, @Nullable Set<Long> expectedVersions);
 
     Vacancy createVacancy(Vacancy vacancy);
-    List<Vacancy> getVacanciesByOrganization(long id);
+    Slice<Vacancy> getVacanciesByOrganization(long id, @Nullable Long beforeId, int size);
 }
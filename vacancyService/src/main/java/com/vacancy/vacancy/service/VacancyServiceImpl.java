@@ -1,73 +1,249 @@
 package com.vacancy.vacancy.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
-
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
 
 import com.vacancy.vacancy.client.Clients;
+import com.vacancy.vacancy.config.SingleFlight;
 import com.vacancy.vacancy.exceptions.RequestException;
 import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyFacetsDtoOut;
+import com.vacancy.vacancy.model.dto.VacancyFilter;
+import com.vacancy.vacancy.model.dto.VacancyMapper;
+import com.vacancy.vacancy.repository.VacancyFacetRow;
 import com.vacancy.vacancy.repository.VacancyRepository;
+import com.vacancy.vacancy.repository.VacancySpecifications;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class VacancyServiceImpl implements VacancyService {
 
     private final VacancyRepository vacancyRepository;
     private final Clients clients;
+    private final ObjectMapper objectMapper;
+    private final VacancyMapper vacancyMapper;
+    private final EntityManager entityManager;
+    private final ParallelValidations validations;
+    // the native cache: its asMap() lookups are not recorded in the hit/miss stats
+    private final Cache<Object, Object> vacancyCache;
+    // concurrent cache misses for one vacancy share a single query
+    private final SingleFlight<Long, Vacancy> vacancyLoads;
+
+    public static final String VACANCY_CACHE = "vacancies";
+    public static final int MAX_BATCH_SIZE = 200;
+
+    // must match the bucket expression of VacancyRepository.countFacets
+    private static final int SALARY_BUCKET_WIDTH = 50000;
+    private static final int LAST_SALARY_BUCKET = 4;
+
+    public VacancyServiceImpl(VacancyRepository vacancyRepository,
+            Clients clients,
+            ObjectMapper objectMapper,
+            VacancyMapper vacancyMapper,
+            EntityManager entityManager,
+            ParallelValidations validations,
+            CacheManager cacheManager,
+            MeterRegistry meterRegistry) {
+        this.vacancyRepository = vacancyRepository;
+        this.clients = clients;
+        this.objectMapper = objectMapper;
+        this.vacancyMapper = vacancyMapper;
+        this.entityManager = entityManager;
+        this.validations = validations;
+        this.vacancyCache = ((CaffeineCache) Objects.requireNonNull(cacheManager.getCache(VACANCY_CACHE)))
+                .getNativeCache();
+        this.vacancyLoads = new SingleFlight<>(VACANCY_CACHE, meterRegistry);
+    }
 
     public Page<Vacancy> getAllVacancies(int page, int size) {
+        return getAllVacancies(new VacancyFilter(), page, size);
+    }
+
+    public Page<Vacancy> getAllVacancies(VacancyFilter filter, int page, int size) {
         if (size > 50) {
             size = 50;
         }
         Pageable pageable = PageRequest.of(page, size);
-        return vacancyRepository.findAll(pageable);
+        return vacancyRepository.findAll(VacancySpecifications.matching(filter), pageable);
+    }
+
+    public Slice<Vacancy> getVacanciesAfter(VacancyFilter filter, long afterId, int size) {
+        if (size > 50) {
+            size = 50;
+        }
+        Specification<Vacancy> spec = VacancySpecifications.matching(filter)
+                .and(VacancySpecifications.idGreaterThan(afterId));
+        Pageable pageable = PageRequest.of(0, size, Sort.by("id"));
+        return vacancyRepository.findBy(spec, query -> query.slice(pageable));
+    }
+
+    public List<Vacancy> searchVacancies(String query, VacancyFilter filter, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new RequestException(HttpStatus.BAD_REQUEST, "Поисковый запрос не может быть пустым");
+        }
+        if (size > 50) {
+            size = 50;
+        }
+        return vacancyRepository.search(query, filter.getCity(), filter.getSalaryMin(), filter.getSalaryMax(),
+                filter.getOrganizationId(), PageRequest.of(page, size));
+    }
+
+    public VacancyFacetsDtoOut getVacancyFacets(VacancyFilter filter) {
+        VacancyFacetsDtoOut facets = new VacancyFacetsDtoOut();
+        List<VacancyFacetRow> rows = vacancyRepository.countFacets(filter.getCity(), filter.getSalaryMin(),
+                filter.getSalaryMax(), filter.getOrganizationId());
+        for (VacancyFacetRow row : rows) {
+            if (!row.getSalaryGroup()) {
+                if (row.getCity() != null) {
+                    facets.getCities().put(row.getCity(), row.getTotal());
+                }
+            } else if (row.getSalaryBucket() != null) {
+                facets.getSalaryBuckets().put(salaryBucketLabel(row.getSalaryBucket()), row.getTotal());
+            }
+        }
+        return facets;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportVacancies(OutputStream out) throws IOException {
+        try (Stream<Vacancy> vacancies = vacancyRepository.streamAllByOrderById()) {
+            Iterator<Vacancy> it = vacancies.iterator();
+            while (it.hasNext()) {
+                Vacancy vacancy = it.next();
+                out.write(objectMapper.writeValueAsBytes(vacancyMapper.toDto(vacancy)));
+                out.write('\n');
+                // written rows must not pile up in the persistence context
+                entityManager.detach(vacancy);
+            }
+        }
+        out.flush();
     }
 
+    private static String salaryBucketLabel(int bucket) {
+        int from = bucket * SALARY_BUCKET_WIDTH;
+        if (bucket >= LAST_SALARY_BUCKET) {
+            return from + "+";
+        }
+        return from + "-" + (from + SALARY_BUCKET_WIDTH);
+    }
+
+    // not @Cacheable(sync = true): Caffeine would run the load inside ConcurrentHashMap.compute and pin virtual
+    // threads. The load puts the vacancy itself before the single flight lets go of the id, so a miss that
+    // arrives after it finds the cache filled instead of starting another query. Each call records one hit or
+    // miss, the load time is recorded by the single flight.
     public Vacancy getVacancyById(long id) {
-        return vacancyRepository.findById(id)
-                .orElseThrow(() -> new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена"));
+        Vacancy cached = (Vacancy) vacancyCache.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        return vacancyLoads.run(id, () -> {
+            Vacancy loaded = (Vacancy) vacancyCache.asMap().get(id);
+            if (loaded == null) {
+                loaded = vacancyRepository.findById(id)
+                        .orElseThrow(() -> new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена"));
+                vacancyCache.put(id, loaded);
+            }
+            return loaded;
+        });
     }
 
+    // found vacancies in request order, duplicates once; rows in the second-level cache are taken from there,
+    // the rest come with a single "id = any(?)" query
+    @Transactional(readOnly = true)
+    public List<Vacancy> getVacanciesByIds(List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new RequestException(HttpStatus.BAD_REQUEST,
+                    "За один запрос можно получить не больше " + MAX_BATCH_SIZE + " вакансий");
+        }
+        if (ids.contains(null)) {
+            throw new RequestException(HttpStatus.BAD_REQUEST, "Некорректный id вакансии");
+        }
+        List<Long> distinct = ids.stream().distinct().toList();
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(Vacancy.class)
+                .enableOrderedReturn(true)
+                .multiLoad(distinct)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @CacheEvict(cacheNames = VACANCY_CACHE, key = "#id")
     public void deleteVacancy(long id) {
         vacancyRepository.deleteById(id);
     }
 
-    public List<Vacancy> getVacanciesByOrganization(long id) {
-        return vacancyRepository.findByOrganizationId(id);
+    public Slice<Vacancy> getVacanciesByOrganization(long id, @Nullable Long beforeId, int size) {
+        if (size > 50) {
+            size = 50;
+        }
+        Pageable pageable = PageRequest.of(0, size);
+        return beforeId == null
+                ? vacancyRepository.findByOrganizationIdOrderByIdDesc(id, pageable)
+                : vacancyRepository.findByOrganizationIdAndIdLessThanOrderByIdDesc(id, beforeId, pageable);
     }
 
-    public Vacancy updateVacancy(long id, Vacancy vacancy) {
-        Vacancy oldVac = vacancyRepository.findById(id).orElse(null);
-        if (oldVac == null)
-            throw new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена");
-
-        try {
-            clients.getOrganizationById(vacancy.getOrganizationId());
-        } catch (Exception e) {
-            throw new RequestException(HttpStatus.NOT_FOUND, "Организация не найдена");
+    @CacheEvict(cacheNames = VACANCY_CACHE, key = "#id")
+    public Vacancy updateVacancy(long id, Vacancy vacancy, @Nullable Set<Long> expectedVersions) {
+        Vacancy oldVac = validations.run(
+                () -> vacancyRepository.findById(id)
+                        .orElseThrow(() -> new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена")),
+                () -> checkOrganization(vacancy.getOrganizationId()));
+        if (expectedVersions != null && !expectedVersions.contains(oldVac.getVersion())) {
+            throw new RequestException(HttpStatus.PRECONDITION_FAILED, "Вакансия была изменена");
         }
 
         oldVac.updateWithOther(vacancy);
 
-        return vacancyRepository.save(oldVac);
+        // oldVac is detached, merge checks its version against the row and catches an update in between
+        try {
+            return vacancyRepository.save(oldVac);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw expectedVersions != null
+                    ? new RequestException(HttpStatus.PRECONDITION_FAILED, "Вакансия была изменена")
+                    : new RequestException(HttpStatus.CONFLICT, "Вакансия была изменена одновременно, повторите запрос");
+        }
     }
 
     public Vacancy createVacancy(Vacancy vacancy) {
+        checkOrganization(vacancy.getOrganizationId());
+        return vacancyRepository.save(vacancy);
+    }
+
+    private void checkOrganization(long organizationId) {
         try {
-            clients.getOrganizationById(vacancy.getOrganizationId());
+            clients.getOrganizationById(organizationId);
         } catch (Exception e) {
             throw new RequestException(HttpStatus.NOT_FOUND, "Организация не найдена");
         }
-        return vacancyRepository.save(vacancy);
     }
 
 }
@@ -0,0 +1,8 @@
+-- 'russian' stems cyrillic words with the russian stemmer and latin ones with the english stemmer
+ALTER TABLE vacancy
+    ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_vacancy_search_vector ON vacancy USING GIN (search_vector);
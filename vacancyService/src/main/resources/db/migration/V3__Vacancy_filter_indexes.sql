@@ -0,0 +1,8 @@
+-- organization filter and by-organization listings, id keeps keyset pages in index order
+CREATE INDEX IF NOT EXISTS idx_vacancy_organization_id ON vacancy (organization_id, id);
+
+-- city filter with optional salary range; also covers the facet query (index-only scan)
+CREATE INDEX IF NOT EXISTS idx_vacancy_city_salary ON vacancy (city, salary) WHERE city IS NOT NULL;
+
+-- salary range without city
+CREATE INDEX IF NOT EXISTS idx_vacancy_salary ON vacancy (salary) WHERE salary IS NOT NULL;
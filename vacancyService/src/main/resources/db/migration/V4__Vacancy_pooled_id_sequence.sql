@@ -0,0 +1,3 @@
+-- Vacancy ids are allocated by Hibernate's pooled optimizer (allocationSize = 50),
+-- which makes JDBC insert batching possible; the sequence step must match it
+ALTER SEQUENCE vacancy_id_seq INCREMENT BY 50;
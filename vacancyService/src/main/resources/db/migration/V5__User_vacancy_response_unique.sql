@@ -0,0 +1,9 @@
+-- keep only the latest response of every (user, vacancy) pair before enforcing uniqueness
+DELETE FROM user_vacancy_response r
+USING user_vacancy_response newer
+WHERE r.user_id = newer.user_id
+  AND r.vacancy_id = newer.vacancy_id
+  AND (r.response_date, r.id) < (newer.response_date, newer.id);
+
+ALTER TABLE user_vacancy_response
+    ADD CONSTRAINT user_vacancy_response_user_vacancy_key UNIQUE (user_id, vacancy_id);
@@ -0,0 +1,5 @@
+-- newest-first keyset pages of a user's and of a vacancy's responses;
+-- (user_id, vacancy_id) lookups are served by the unique constraint from V5
+CREATE INDEX IF NOT EXISTS idx_response_user_date ON user_vacancy_response (user_id, response_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_response_vacancy_date ON user_vacancy_response (vacancy_id, response_date DESC, id DESC);
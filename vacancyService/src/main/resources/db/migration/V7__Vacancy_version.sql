@@ -0,0 +1,2 @@
+-- optimistic locking and ETags: bumped by Hibernate on every update
+ALTER TABLE vacancy ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
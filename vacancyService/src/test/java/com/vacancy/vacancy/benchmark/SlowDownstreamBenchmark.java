@@ -0,0 +1,101 @@
+package com.vacancy.vacancy.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.vacancy.vacancy.client.OrganizationClient;
+
+/**
+ * Creates vacancies concurrently while every organization lookup takes {@link #DOWNSTREAM_DELAY}.
+ * Subclasses only differ in the thread mode, run with {@code gradle benchmark} and compare the printed throughput.
+ */
+@Tag("benchmark")
+@ActiveProfiles("test")
+abstract class SlowDownstreamBenchmark {
+
+    static final Duration DOWNSTREAM_DELAY = Duration.ofMillis(200);
+    static final int REQUESTS = 1000;
+    // a small Tomcat pool makes the platform-thread ceiling visible: at most 50 lookups wait at once
+    static final String TOMCAT_THREADS = "server.tomcat.threads.max=50";
+
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @LocalServerPort
+    private Integer port;
+    @MockitoBean
+    private OrganizationClient organizationClient;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.setProperty("api.version", "1.44");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    abstract String mode();
+
+    @Test
+    void createVacancies_slowOrganizationService() {
+        when(organizationClient.getOrganizationById(anyLong())).thenAnswer(invocation -> {
+            Thread.sleep(DOWNSTREAM_DELAY.toMillis());
+            return new Object();
+        });
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long started = System.nanoTime();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            // a distinct organization per request, so every call misses the organization cache
+            String body = "{\"title\":\"Bench\",\"description\":\"d\",\"organization_id\":" + (i + 1) + "}";
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/vacancies"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+        }
+        long created = responses.stream()
+                .map(CompletableFuture::join)
+                .filter(response -> response.statusCode() == 201)
+                .count();
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        assertEquals(REQUESTS, created);
+        System.out.printf("[benchmark] %s threads: %d requests in %d ms, %.1f req/s%n",
+                mode(), REQUESTS, elapsed.toMillis(), REQUESTS * 1000.0 / elapsed.toMillis());
+    }
+}
@@ -0,0 +1,14 @@
+package com.vacancy.vacancy.benchmark;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.cloud.config.enabled=false", "eureka.client.enabled=false",
+        "spring.threads.virtual.enabled=true", "admission.enabled=false", SlowDownstreamBenchmark.TOMCAT_THREADS })
+class VirtualThreadsBenchmarkTest extends SlowDownstreamBenchmark {
+
+    @Override
+    String mode() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,45 @@
+package com.vacancy.vacancy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlFilterTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdmissionControlFilter filter = new AdmissionControlFilter(new AdmissionController(meterRegistry,
+            true, Duration.ofMillis(20), Duration.ofSeconds(1), 0.5, 2, 10, 4, 4));
+
+    private double inFlight(String requestClass) {
+        return meterRegistry.get("admission.in.flight").tag("class", requestClass).gauge().value();
+    }
+
+    @Test
+    void asyncRequestHoldsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/vacancies/export");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        // the handler returned, the body is still being streamed
+        assertEquals(1, inFlight("read"));
+
+        request.getAsyncContext().complete();
+        assertEquals(0, inFlight("read"));
+    }
+
+    @Test
+    void syncRequestReleasesPermitOnReturn() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/vacancies/batch");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> assertEquals(1, inFlight("read")));
+        assertEquals(0, inFlight("read"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.vacancy.vacancy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControllerTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Timer acquire = meterRegistry.timer("hikaricp.connections.acquire");
+
+    private AdmissionController controller(boolean enabled) {
+        return new AdmissionController(meterRegistry, enabled, Duration.ofMillis(20), Duration.ofSeconds(1), 0.5,
+                2, 10, 4, 4);
+    }
+
+    private double limit(String requestClass) {
+        return meterRegistry.get("admission.limit").tag("class", requestClass).gauge().value();
+    }
+
+    @Test
+    void limiter_rejectsOverLimitImmediately() {
+        AdmissionController.Limiter reads = controller(true).limiterFor("GET", "/api/vacancies");
+        for (int i = 0; i < 4; i++) {
+            assertTrue(reads.tryAcquire());
+        }
+        assertFalse(reads.tryAcquire());
+        reads.release();
+        assertTrue(reads.tryAcquire());
+        assertEquals(1, meterRegistry.get("admission.rejected").tag("class", "read").counter().count());
+    }
+
+    @Test
+    void readsAndWritesHaveSeparateLimits() {
+        AdmissionController controller = controller(true);
+        assertNotSame(controller.limiterFor("GET", "/api/vacancies"), controller.limiterFor("PUT", "/api/vacancies/1"));
+        assertNull(controller(false).limiterFor("GET", "/api/vacancies"));
+        // a lookup that only needs a body for its ids counts as a read
+        assertSame(controller.limiterFor("GET", "/api/vacancies"),
+                controller.limiterFor("POST", "/api/vacancies/batch"));
+        assertSame(controller.limiterFor("POST", "/api/vacancies"),
+                controller.limiterFor("POST", "/api/vacancies/bulk"));
+    }
+
+    @Test
+    void adjust_cutsOnSlowAcquireAndGrowsWhenSaturated() {
+        AdmissionController controller = controller(true);
+        AdmissionController.Limiter writes = controller.limiterFor("POST", "/api/vacancies");
+
+        acquire.record(Duration.ofMillis(100));
+        controller.adjust();
+        assertEquals(2, limit("write"));
+
+        // healthy pool and the limit is reached: additive increase
+        acquire.record(Duration.ofMillis(1));
+        assertTrue(writes.tryAcquire());
+        assertTrue(writes.tryAcquire());
+        controller.adjust();
+        assertEquals(3, limit("write"));
+
+        // healthy but idle: no growth
+        writes.release();
+        writes.release();
+        controller.adjust();
+        controller.adjust();
+        assertEquals(3, limit("write"));
+    }
+
+    @Test
+    void adjust_cutsWhenAcquisitionsTimeOut() {
+        AdmissionController controller = controller(true);
+        Counter timeouts = meterRegistry.counter("hikaricp.connections.timeout");
+        AtomicInteger pending = meterRegistry.gauge("hikaricp.connections.pending", new AtomicInteger());
+
+        AdmissionController.Limiter writes = controller.limiterFor("POST", "/api/vacancies");
+
+        // saturated pool: no borrow succeeds, so the acquire timer has no samples
+        timeouts.increment(3);
+        controller.adjust();
+        assertEquals(2, limit("write"));
+        assertEquals(2, limit("read"));
+
+        // recovered and the limit is reached
+        assertTrue(writes.tryAcquire());
+        assertTrue(writes.tryAcquire());
+        controller.adjust();
+        assertEquals(3, limit("write"));
+
+        // threads waiting for a connection while none was handed out
+        pending.set(10);
+        controller.adjust();
+        assertEquals(2, limit("write"));
+    }
+}
@@ -0,0 +1,112 @@
+package com.vacancy.vacancy.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<Long, String> loads = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double loads(String outcome) {
+        return meterRegistry.get("singleflight.loads").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitLoads(String outcome, double count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (loads(outcome) < count) {
+            if (System.nanoTime() > deadline) {
+                fail("expected " + count + " " + outcome + " loads, got " + loads(outcome));
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void run_concurrentCallsShareOneLoad() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> loads.run(1L, () -> {
+                executed.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "vacancy";
+            })));
+        }
+        // every caller has joined the first load before it is allowed to finish
+        awaitLoads("executed", 1);
+        awaitLoads("coalesced", 7);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertEquals("vacancy", result.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executed.get());
+        assertEquals(1, loads("executed"));
+        assertEquals(7, loads("coalesced"));
+        assertEquals(1, meterRegistry.get("singleflight.load.duration").tag("name", "test").timer().count());
+    }
+
+    @Test
+    void run_failureReachesAllWaitersAndIsNotRemembered() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RequestException notFound = new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена");
+        Future<?> leader = executor.submit(() -> loads.run(1L, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw notFound;
+        }));
+        awaitLoads("executed", 1);
+        Future<String> follower = executor.submit(() -> loads.run(1L, () -> "unexpected"));
+        awaitLoads("coalesced", 1);
+        release.countDown();
+
+        assertThrows(Exception.class, () -> leader.get(1, TimeUnit.SECONDS));
+        Exception e = assertThrows(Exception.class, () -> follower.get(1, TimeUnit.SECONDS));
+        assertSame(notFound, e.getCause());
+
+        assertEquals("loaded", loads.run(1L, () -> "loaded"));
+        assertEquals(2, loads("executed"));
+    }
+
+    @Test
+    void run_differentKeysDoNotWaitForEachOther() {
+        assertEquals("a", loads.run(1L, () -> loads.run(2L, () -> "a")));
+        assertEquals(2, loads("executed"));
+        assertEquals(0, loads("coalesced"));
+    }
+}
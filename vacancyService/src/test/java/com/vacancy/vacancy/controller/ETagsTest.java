@@ -0,0 +1,49 @@
+package com.vacancy.vacancy.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.vacancy.vacancy.model.Vacancy;
+
+class ETagsTest {
+
+    private static Vacancy vacancy(long id, long version) {
+        Vacancy vacancy = new Vacancy("Java Developer", "desc");
+        vacancy.setId(id);
+        vacancy.setVersion(version);
+        return vacancy;
+    }
+
+    @Test
+    void weak_pageTagChangesWithTotalCount() {
+        List<Vacancy> page = List.of(vacancy(1, 0), vacancy(2, 3));
+
+        String tag = ETags.weak(page, 60, Vacancy::getId, Vacancy::getVersion);
+        assertEquals(tag, ETags.weak(List.of(vacancy(1, 0), vacancy(2, 3)), 60, Vacancy::getId, Vacancy::getVersion));
+        // a vacancy added on a later page leaves the rows of this one as they were
+        assertNotEquals(tag, ETags.weak(page, 61, Vacancy::getId, Vacancy::getVersion));
+    }
+
+    @Test
+    void expectedVersions_anyListedStrongTag() {
+        assertNull(ETags.expectedVersions(null));
+        assertNull(ETags.expectedVersions("*"));
+        assertEquals(Set.of(3L), ETags.expectedVersions("\"3\""));
+        assertEquals(Set.of(3L, 4L), ETags.expectedVersions("\"3\", \"4\""));
+        // If-Match compares strongly: weak and foreign tags never match
+        assertEquals(Set.of(4L), ETags.expectedVersions("W/\"3\", \"x\", \"4\""));
+        assertEquals(Set.of(), ETags.expectedVersions("W/\"3\""));
+    }
+
+    @Test
+    void weak_tagChangesWithVersion() {
+        assertNotEquals(ETags.weak(List.of(vacancy(1, 0)), Vacancy::getId, Vacancy::getVersion),
+                ETags.weak(List.of(vacancy(1, 1)), Vacancy::getId, Vacancy::getVersion));
+    }
+}
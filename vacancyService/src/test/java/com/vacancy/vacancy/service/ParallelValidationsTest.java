@@ -0,0 +1,126 @@
+package com.vacancy.vacancy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import com.vacancy.vacancy.exceptions.RequestException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ParallelValidationsTest {
+
+    private final ParallelValidations validations = new ParallelValidations(new SimpleMeterRegistry(), 4, 16,
+            Duration.ofMillis(500), false);
+
+    @AfterEach
+    void tearDown() {
+        validations.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Test
+    void run_waitsForSlowestCheckOnly() {
+        long started = System.nanoTime();
+        String result = validations.run(() -> {
+            sleep(150);
+            return "local";
+        }, () -> sleep(150), () -> sleep(150));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals("local", result);
+        assertTrue(elapsedMs < 400, "checks ran one after another: " + elapsedMs + " ms");
+    }
+
+    @Test
+    void run_firstFailureCancelsTheRest() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        RequestException ex = assertThrows(RequestException.class, () -> validations.run(() -> "local",
+                () -> {
+                    try {
+                        started.await(1, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    throw new RequestException(HttpStatus.NOT_FOUND, "Пользователь не найден");
+                },
+                () -> {
+                    started.countDown();
+                    try {
+                        Thread.sleep(5000);
+                    } catch (InterruptedException e) {
+                        interrupted.countDown();
+                    }
+                }));
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.code);
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_remoteFailureDoesNotWaitForLocalCheck() throws InterruptedException {
+        CountDownLatch interrupted = new CountDownLatch(1);
+        long started = System.nanoTime();
+        RequestException ex = assertThrows(RequestException.class, () -> validations.run(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "local";
+        }, () -> {
+            throw new RequestException(HttpStatus.NOT_FOUND, "Пользователь не найден");
+        }));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertEquals(HttpStatus.NOT_FOUND, ex.code);
+        assertTrue(elapsedMs < 400, "waited for the local check: " + elapsedMs + " ms");
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void run_onVirtualThreads() {
+        ParallelValidations virtual = new ParallelValidations(new SimpleMeterRegistry(), 1, 1,
+                Duration.ofMillis(500), true);
+        try {
+            // more checks than the platform pool and its queue would accept
+            assertEquals("local", virtual.run(() -> "local", () -> sleep(50), () -> sleep(50), () -> sleep(50)));
+        } finally {
+            virtual.shutdown();
+        }
+    }
+
+    @Test
+    void run_localFailureIsRethrown() {
+        RequestException ex = assertThrows(RequestException.class, () -> validations.run(() -> {
+            throw new RequestException(HttpStatus.NOT_FOUND, "Вакансия не найдена");
+        }, () -> sleep(100)));
+
+        assertEquals("Вакансия не найдена", ex.getMessage());
+    }
+
+    @Test
+    void run_deadlineExceeded() {
+        RequestException ex = assertThrows(RequestException.class,
+                () -> validations.run(() -> "local", () -> sleep(2000)));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, ex.code);
+    }
+}
@@ -5,10 +5,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -16,6 +20,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
 import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
@@ -28,6 +33,7 @@ import com.vacancy.vacancy.client.UserClient;
 import com.vacancy.vacancy.exceptions.RequestException;
 import com.vacancy.vacancy.model.UserVacancyResponse;
 import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.Cursor;
 import com.vacancy.vacancy.repository.UserVacancyResponseRepository;
 import com.vacancy.vacancy.repository.VacancyRepository;
 
@@ -116,6 +122,22 @@ class UserVacancyResponseServiceTest {
         assertEquals(testVacancy.getId(), list.get(0).getVacancyId().longValue());
     }
 
+    @Test
+    void testRespondToVacancy_UserLookupCachedUntilForgotten() {
+        long userId = 55L;
+        Vacancy vac2 = new Vacancy("Other", "desc");
+        vac2.setOrganizationId(1L);
+        Vacancy savedVac2 = vacancyRepository.save(vac2);
+
+        responseService.respondToVacancy(testVacancy.getId(), userId);
+        responseService.respondToVacancy(savedVac2.getId(), userId);
+        verify(userClient, times(1)).getUserById(userId);
+
+        responseService.forgetUser(userId);
+        responseService.respondToVacancy(testVacancy.getId(), userId);
+        verify(userClient, times(2)).getUserById(userId);
+    }
+
     @Test
     void testRespondToVacancy_VacancyNotFound() {
         long userId = 7L;
@@ -146,6 +168,20 @@ class UserVacancyResponseServiceTest {
         assertEquals(1, responseRepository.count());
     }
 
+    @Test
+    void testRespondToVacancy_RepeatedResponseRefreshesDate() {
+        long userId = 6L;
+        long vacancyId = testVacancy.getId();
+        responseService.respondToVacancy(vacancyId, userId);
+        UserVacancyResponse first = responseService.getVacancyResponsesForUser(userId, vacancyId).get(0);
+
+        responseService.respondToVacancy(vacancyId, userId);
+        UserVacancyResponse second = responseService.getVacancyResponsesForUser(userId, vacancyId).get(0);
+
+        assertEquals(first.getId(), second.getId());
+        assertTrue(second.getResponseDate().isAfter(first.getResponseDate()));
+    }
+
     @Test
     void testRemoveResponseFromVacancy() {
         long userId = 11L;
@@ -178,17 +214,41 @@ class UserVacancyResponseServiceTest {
         responseRepository.save(new UserVacancyResponse(userA, savedVac2.getId()));
         responseRepository.save(new UserVacancyResponse(userB, vacancyA));
 
-        var userResponses = responseService.getUserResponses(userA);
+        var userResponses = responseService.getUserResponses(userA, null, 50);
         assertNotNull(userResponses);
-        assertEquals(2, userResponses.size());
+        assertEquals(2, userResponses.getNumberOfElements());
 
-        var vacancyResponses = responseService.getVacancyResponses(vacancyA);
+        var vacancyResponses = responseService.getVacancyResponses(vacancyA, null, 50);
         assertNotNull(vacancyResponses);
-        assertEquals(2, vacancyResponses.size());
+        assertEquals(2, vacancyResponses.getNumberOfElements());
 
         var specific = responseService.getVacancyResponsesForUser(userA, vacancyA);
         assertNotNull(specific);
         assertEquals(1, specific.size());
     }
 
+    @Test
+    void testGetVacancyResponses_CursorPagesNewestFirst() {
+        long vacancyId = testVacancy.getId();
+        for (long userId = 31; userId <= 35; userId++) {
+            responseService.respondToVacancy(vacancyId, userId);
+        }
+
+        var first = responseService.getVacancyResponses(vacancyId, null, 2);
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals(35L, (long) first.getContent().get(0).getUserId());
+
+        List<Long> seen = new ArrayList<>();
+        first.forEach(r -> seen.add(r.getUserId()));
+        Slice<UserVacancyResponse> page = first;
+        while (page.hasNext()) {
+            UserVacancyResponse last = page.getContent().get(page.getNumberOfElements() - 1);
+            Cursor cursor = Cursor.decode(Cursor.of(last.getResponseDate(), last.getId()).encode());
+            page = responseService.getVacancyResponses(vacancyId, cursor, 2);
+            page.forEach(r -> seen.add(r.getUserId()));
+        }
+        assertEquals(List.of(35L, 34L, 33L, 32L, 31L), seen);
+    }
+
 }
@@ -0,0 +1,212 @@
+package com.vacancy.vacancy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.vacancy.vacancy.client.UserClient;
+import com.vacancy.vacancy.exceptions.RequestException;
+import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.repository.UserVacancyResponseRepository;
+import com.vacancy.vacancy.repository.VacancyRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.cloud.config.enabled=false", "eureka.client.enabled=false",
+        "vacancy.responses.write-behind.enabled=true" })
+@ActiveProfiles("test")
+class UserVacancyResponseWriteBehindTest {
+
+    @LocalServerPort
+    private Integer port;
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    UserVacancyResponseRepository responseRepository;
+    @Autowired
+    UserVacancyResponseService responseService;
+    @Autowired
+    UserVacancyResponseWriteBehind writeBehind;
+    @MockitoBean
+    private UserClient userClient;
+
+    private Vacancy testVacancy;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.setProperty("api.version", "1.44");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        responseRepository.deleteAll();
+        vacancyRepository.deleteAll();
+
+        Vacancy vac = new Vacancy("Java Developer", "Develop Java applications");
+        vac.setOrganizationId(1L);
+        testVacancy = vacancyRepository.save(vac);
+
+        when(userClient.getUserById(anyLong())).thenReturn(new Object());
+    }
+
+    private void awaitResponses(long expected) throws InterruptedException {
+        for (int i = 0; i < 100 && responseRepository.count() < expected; i++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void testRespondToVacancy_QueuedAndWrittenInBatches() throws InterruptedException {
+        for (long userId = 1; userId <= 300; userId++) {
+            assertFalse(responseService.respondToVacancy(testVacancy.getId(), userId));
+        }
+        // repeated clicks inside one batch collapse into one row
+        responseService.respondToVacancy(testVacancy.getId(), 1L);
+
+        awaitResponses(300);
+        assertEquals(300, responseRepository.count());
+    }
+
+    @Test
+    void testFlushFailure_BatchRetriedNotDropped() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AtomicInteger attempts = new AtomicInteger();
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("connection reset");
+            }
+            return 1;
+        });
+        UserVacancyResponseWriteBehind writeBehind = new UserVacancyResponseWriteBehind(jdbcTemplate,
+                new SimpleMeterRegistry(), 100, 10, Duration.ofMillis(5), Duration.ofMillis(20), 3);
+        writeBehind.start();
+        writeBehind.enqueue(1L, testVacancy.getId());
+
+        for (int i = 0; i < 100 && attempts.get() < 2; i++) {
+            Thread.sleep(10);
+        }
+        writeBehind.drain();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testFlushFailure_BatchDroppedAfterMaxRetries() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        AtomicInteger attempts = new AtomicInteger();
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() <= 4) {
+                throw new IllegalStateException("value too long");
+            }
+            return 1;
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        UserVacancyResponseWriteBehind writeBehind = new UserVacancyResponseWriteBehind(jdbcTemplate,
+                meterRegistry, 100, 10, Duration.ofMillis(5), Duration.ofMillis(20), 3);
+        writeBehind.start();
+        writeBehind.enqueue(1L, testVacancy.getId());
+
+        // the first attempt and three retries, then the batch is given up and the next one is written
+        for (int i = 0; i < 200 && meterRegistry.counter("vacancy.responses.dropped").count() < 1; i++) {
+            Thread.sleep(10);
+        }
+        writeBehind.enqueue(2L, testVacancy.getId());
+        for (int i = 0; i < 100 && attempts.get() < 5; i++) {
+            Thread.sleep(10);
+        }
+        writeBehind.drain();
+        assertEquals(1, meterRegistry.counter("vacancy.responses.dropped").count());
+        assertEquals(5, attempts.get());
+    }
+
+    @Test
+    void testFlush_DeletedVacancyGetsNoOrphanRows() throws InterruptedException {
+        // as if the vacancy was deleted between the validation and the flush
+        long deletedVacancyId = testVacancy.getId() + 1000;
+        writeBehind.enqueue(1L, deletedVacancyId);
+        writeBehind.enqueue(2L, testVacancy.getId());
+
+        awaitResponses(1);
+        assertEquals(1, responseRepository.count());
+        assertTrue(responseRepository.findByUserIdAndVacancyId(1L, deletedVacancyId).isEmpty());
+    }
+
+    @Test
+    void testDrain_LetsFlushInProgressFinish() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        CountDownLatch flushing = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        when(jdbcTemplate.update(any(PreparedStatementCreator.class))).thenAnswer(invocation -> {
+            flushing.countDown();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return 1;
+        });
+        UserVacancyResponseWriteBehind writeBehind = new UserVacancyResponseWriteBehind(jdbcTemplate,
+                new SimpleMeterRegistry(), 100, 10, Duration.ofMillis(5), Duration.ofMillis(20), 3);
+        writeBehind.start();
+        writeBehind.enqueue(1L, testVacancy.getId());
+
+        assertTrue(flushing.await(1, TimeUnit.SECONDS));
+        writeBehind.drain();
+        assertFalse(interrupted.get());
+        verify(jdbcTemplate, times(1)).update(any(PreparedStatementCreator.class));
+    }
+
+    @Test
+    void testRespondToVacancy_MissingVacancyRejectedBeforeQueueing() {
+        RequestException ex = assertThrows(RequestException.class,
+                () -> responseService.respondToVacancy(testVacancy.getId() + 1000, 1L));
+        assertEquals(HttpStatus.NOT_FOUND, ex.code);
+    }
+}
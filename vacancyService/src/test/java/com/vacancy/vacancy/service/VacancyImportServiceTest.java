@@ -0,0 +1,192 @@
+package com.vacancy.vacancy.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.vacancy.vacancy.client.OrganizationClient;
+import com.vacancy.vacancy.repository.UserVacancyResponseRepository;
+import com.vacancy.vacancy.repository.VacancyRepository;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Request.HttpMethod;
+import feign.RequestTemplate;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.cloud.config.enabled=false", "eureka.client.enabled=false", "vacancy.import.chunk-size=2" })
+@ActiveProfiles("test")
+class VacancyImportServiceTest {
+
+    @LocalServerPort
+    private Integer port;
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @Autowired
+    VacancyRepository vacancyRepository;
+    @Autowired
+    UserVacancyResponseRepository responseRepository;
+    @Autowired
+    VacancyImportService importService;
+    @Autowired
+    ObjectMapper objectMapper;
+    @MockitoBean
+    private OrganizationClient organizationClient;
+
+    @BeforeAll
+    static void beforeAll() {
+        System.setProperty("api.version", "1.44");
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.url", postgres::getJdbcUrl);
+        registry.add("spring.flyway.user", postgres::getUsername);
+        registry.add("spring.flyway.password", postgres::getPassword);
+    }
+
+    @BeforeEach
+    void setUp() {
+        responseRepository.deleteAll();
+        vacancyRepository.deleteAll();
+
+        when(organizationClient.getOrganizationById(anyLong()))
+                .thenAnswer(invocation -> {
+                    Long x = invocation.getArgument(0);
+                    if (x < 100L)
+                        return new Object();
+                    Request fakeReq = Request.create(HttpMethod.GET, "/", Collections.emptyMap(), null,
+                            StandardCharsets.UTF_8, new RequestTemplate());
+                    throw new FeignException.NotFound("Not found", fakeReq, null, null);
+                });
+        when(organizationClient.getOrganizationsByIds(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = invocation.getArgument(0);
+                    return ids.stream()
+                            .filter(id -> id < 100L)
+                            .map(id -> Map.<String, Object>of("id", id))
+                            .toList();
+                });
+    }
+
+    private List<JsonNode> importLines(String... lines) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] body = String.join("\n", lines).getBytes(StandardCharsets.UTF_8);
+        importService.importVacancies(new ByteArrayInputStream(body), out);
+        return out.toString(StandardCharsets.UTF_8).lines()
+                .map(line -> {
+                    try {
+                        return objectMapper.readTree(line);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toList();
+    }
+
+    @Test
+    void importVacancies_reportsEveryLine() throws Exception {
+        List<JsonNode> results = importLines(
+                "{\"title\":\"A\",\"description\":\"a\",\"organization_id\":7}",
+                "{\"title\":\"B\",\"description\":\"b\",\"organization_id\":7,\"salary\":1000}",
+                "",
+                "not json",
+                "{\"title\":\"\",\"description\":\"c\",\"organization_id\":7}",
+                "{\"title\":\"D\",\"description\":\"d\",\"organization_id\":500}");
+
+        assertEquals(5, results.size());
+        assertNotNull(results.get(0).get("id"));
+        assertNotNull(results.get(1).get("id"));
+        assertEquals(4, results.get(2).get("line").asLong());
+        assertNotNull(results.get(2).get("error"));
+        assertNotNull(results.get(3).get("error"));
+        assertNotNull(results.get(4).get("error"));
+        assertNull(results.get(4).get("id"));
+
+        assertEquals(2, vacancyRepository.count());
+    }
+
+    @Test
+    void importVacancies_chunkFailingAtFlushFailsOnlyTheBrokenLine() throws Exception {
+        // valid JSON, but PostgreSQL rejects NUL characters in text columns when the batch is executed
+        List<JsonNode> results = importLines(
+                "{\"title\":\"A\",\"description\":\"a\",\"organization_id\":7}",
+                "{\"title\":\"B\\u0000\",\"description\":\"b\",\"organization_id\":7}");
+
+        assertEquals(2, results.size());
+        // the chunk is saved again row by row, only the broken line fails
+        assertNotNull(results.get(0).get("id"));
+        assertNull(results.get(0).get("error"));
+        assertEquals("Ошибка сохранения", results.get(1).get("error").asText());
+        assertEquals(1, vacancyRepository.count());
+        assertTrue(vacancyRepository.existsById(results.get(0).get("id").asLong()));
+    }
+
+    @Test
+    void importVacancies_looksUpOrganizationsInOneBatchPerChunk() throws Exception {
+        List<JsonNode> results = importLines(
+                "{\"title\":\"A\",\"description\":\"a\",\"organization_id\":81}",
+                "{\"title\":\"B\",\"description\":\"b\",\"organization_id\":82}",
+                "{\"title\":\"C\",\"description\":\"c\",\"organization_id\":81}",
+                "{\"title\":\"D\",\"description\":\"d\",\"organization_id\":601}");
+
+        // chunks of two: 81 is cached from the first chunk when the second one is checked
+        verify(organizationClient, times(1)).getOrganizationsByIds(List.of(81L, 82L));
+        verify(organizationClient, times(1)).getOrganizationsByIds(List.of(601L));
+        verify(organizationClient, never()).getOrganizationById(anyLong());
+        assertNotNull(results.get(3).get("error"));
+        assertEquals(3, vacancyRepository.count());
+    }
+
+    @Test
+    void importVacancies_organizationServiceDownIsNotReportedAsMissing() throws Exception {
+        when(organizationClient.getOrganizationsByIds(anyList())).thenThrow(new IllegalStateException("down"));
+
+        List<JsonNode> results = importLines(
+                "{\"title\":\"A\",\"description\":\"a\",\"organization_id\":91}",
+                "{\"title\":\"B\",\"description\":\"b\",\"organization_id\":92}");
+
+        assertEquals("Сервис организаций недоступен", results.get(0).get("error").asText());
+        assertEquals("Сервис организаций недоступен", results.get(1).get("error").asText());
+        assertEquals(0, vacancyRepository.count());
+    }
+
+}
@@ -5,11 +5,20 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +26,9 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -24,13 +36,20 @@ import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.testcontainers.containers.PostgreSQLContainer;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import com.vacancy.vacancy.client.OrganizationClient;
 import com.vacancy.vacancy.exceptions.RequestException;
 import com.vacancy.vacancy.model.Vacancy;
+import com.vacancy.vacancy.model.dto.VacancyFilter;
 import com.vacancy.vacancy.repository.UserVacancyResponseRepository;
 import com.vacancy.vacancy.repository.VacancyRepository;
 
 import feign.FeignException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
 import feign.Request;
 import feign.Request.HttpMethod;
 import feign.RequestTemplate;
@@ -56,6 +75,12 @@ class VacancyServiceTest {
     UserVacancyResponseRepository responseRepository;
     @Autowired
     VacancyService vacancyService;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    CacheManager cacheManager;
     @MockitoBean
     private OrganizationClient organizationClient;
 
@@ -135,7 +160,7 @@ class VacancyServiceTest {
         updated.setSalary(200000);
         updated.setCity("Kazan");
 
-        Vacancy result = vacancyService.updateVacancy(testVacancy.getId(), updated);
+        Vacancy result = vacancyService.updateVacancy(testVacancy.getId(), updated, null);
         assertNotNull(result);
         assertEquals("Updated", result.getTitle());
         assertEquals("Updated desc", result.getDescription());
@@ -151,9 +176,48 @@ class VacancyServiceTest {
         another.setCity("Moscow");
         vacancyRepository.save(another);
 
-        var list = vacancyService.getVacanciesByOrganization(1L);
-        assertNotNull(list);
-        assertEquals(2, list.size());
+        var slice = vacancyService.getVacanciesByOrganization(1L, null, 50);
+        assertNotNull(slice);
+        assertEquals(2, slice.getNumberOfElements());
+        assertEquals(another.getId(), slice.getContent().get(0).getId());
+    }
+
+    @Test
+    void testGetVacanciesByOrganization_QueryCachedUntilVacancyTableChanges() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        vacancyService.getVacanciesByOrganization(1L, null, 50);
+        long hits = stats.getQueryCacheHitCount();
+
+        var cached = vacancyService.getVacanciesByOrganization(1L, null, 50);
+        assertEquals(hits + 1, stats.getQueryCacheHitCount());
+        assertEquals(1, cached.getNumberOfElements());
+
+        Vacancy another = new Vacancy("QA", "desc");
+        another.setOrganizationId(1L);
+        vacancyRepository.save(another);
+
+        var fresh = vacancyService.getVacanciesByOrganization(1L, null, 50);
+        assertEquals(2, fresh.getNumberOfElements());
+    }
+
+    @Test
+    void testGetVacanciesByOrganization_PagesNewestFirst() {
+        for (int i = 0; i < 4; i++) {
+            Vacancy v = new Vacancy("Org" + i, "desc");
+            v.setOrganizationId(1L);
+            vacancyRepository.save(v);
+        }
+
+        var first = vacancyService.getVacanciesByOrganization(1L, null, 3);
+        assertEquals(3, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        assertEquals("Org3", first.getContent().get(0).getTitle());
+
+        long last = first.getContent().get(2).getId();
+        var second = vacancyService.getVacanciesByOrganization(1L, last, 3);
+        assertEquals(2, second.getNumberOfElements());
+        assertTrue(!second.hasNext());
+        assertEquals(testVacancy.getId(), second.getContent().get(1).getId());
     }
 
     @Test
@@ -178,12 +242,157 @@ class VacancyServiceTest {
         assertTrue(emptyPage.isEmpty());
     }
 
+    @Test
+    void testGetVacanciesAfter_WalksAllPagesWithoutGaps() {
+        for (int i = 0; i < 24; i++) {
+            Vacancy v = new Vacancy("Keyset" + i, "desc");
+            v.setOrganizationId(3L);
+            vacancyRepository.save(v);
+        }
+
+        long after = 0;
+        int seen = 0;
+        Slice<Vacancy> slice;
+        do {
+            slice = vacancyService.getVacanciesAfter(new VacancyFilter(), after, 10);
+            for (Vacancy v : slice) {
+                assertTrue(v.getId() > after);
+                after = v.getId();
+                seen++;
+            }
+        } while (slice.hasNext());
+
+        assertEquals(25, seen);
+        assertTrue(vacancyService.getVacanciesAfter(new VacancyFilter(), after, 10).isEmpty());
+    }
+
+    @Test
+    void testSqlMetrics_AttributedToRepositoryMethod() {
+        vacancyService.getVacanciesAfter(new VacancyFilter(), 0, 10);
+
+        Timer statements = meterRegistry.find("db.sql.statement").tag("method", "VacancyRepository.findBy").timer();
+        assertNotNull(statements);
+        assertTrue(statements.count() > 0);
+        // tagged with a short hash of the fingerprint, not the statement text
+        assertTrue(statements.getId().getTag("sql").matches("[0-9a-f]{8}(,[0-9a-f]{8})*"));
+        DistributionSummary rows = meterRegistry.find("db.repository.rows.read")
+                .tag("method", "VacancyRepository.findBy").summary();
+        assertNotNull(rows);
+        assertTrue(rows.totalAmount() >= 1);
+    }
+
+    @Test
+    void testSearchVacancies_RanksTitleMatchesFirstAndFilters() {
+        Vacancy inDescription = new Vacancy("Backend Developer", "Spring and Java services");
+        inDescription.setOrganizationId(1L);
+        inDescription.setSalary(150000);
+        inDescription.setCity("Moscow");
+        vacancyRepository.save(inDescription);
+
+        Vacancy otherCity = new Vacancy("Java Team Lead", "Lead a team");
+        otherCity.setOrganizationId(1L);
+        otherCity.setSalary(300000);
+        otherCity.setCity("Kazan");
+        vacancyRepository.save(otherCity);
+
+        var all = vacancyService.searchVacancies("java", new VacancyFilter(), 0, 10);
+        assertEquals(3, all.size());
+        assertTrue(all.get(all.size() - 1).getTitle().startsWith("Backend"));
+
+        VacancyFilter filter = new VacancyFilter();
+        filter.setCity("Moscow");
+        filter.setSalaryMin(120000);
+        var filtered = vacancyService.searchVacancies("java", filter, 0, 10);
+        assertEquals(1, filtered.size());
+        assertEquals("Backend Developer", filtered.get(0).getTitle());
+
+        assertThrows(RequestException.class, () -> vacancyService.searchVacancies(" ", filter, 0, 10));
+    }
+
+    @Test
+    void testSearchVacancies_ReadsVersion() {
+        Vacancy updated = new Vacancy("Java Developer", "Develop Java applications");
+        updated.setOrganizationId(1L);
+        long version = vacancyService.updateVacancy(testVacancy.getId(), updated, null).getVersion();
+
+        var found = vacancyService.searchVacancies("java", new VacancyFilter(), 0, 10);
+        assertEquals(1, found.size());
+        assertEquals(version, found.get(0).getVersion());
+        assertTrue(version > testVacancy.getVersion());
+    }
+
+    @Test
+    void testGetAllVacancies_FilteredAndKeyset() {
+        for (int i = 0; i < 6; i++) {
+            Vacancy v = new Vacancy("Filter" + i, "desc");
+            v.setOrganizationId(i % 2 == 0 ? 5L : 6L);
+            v.setSalary(40000 * i);
+            v.setCity(i < 3 ? "Omsk" : "Tomsk");
+            vacancyRepository.save(v);
+        }
+
+        VacancyFilter filter = new VacancyFilter();
+        filter.setCity("Omsk");
+        filter.setSalaryMin(40000);
+        assertEquals(2, vacancyService.getAllVacancies(filter, 0, 10).getTotalElements());
+
+        filter = new VacancyFilter();
+        filter.setOrganizationId(5L);
+        var first = vacancyService.getVacanciesAfter(filter, 0, 2);
+        assertEquals(2, first.getNumberOfElements());
+        assertTrue(first.hasNext());
+        var rest = vacancyService.getVacanciesAfter(filter, first.getContent().get(1).getId(), 2);
+        assertEquals(1, rest.getNumberOfElements());
+        assertTrue(!rest.hasNext());
+    }
+
+    @Test
+    void testGetVacancyFacets() {
+        for (int i = 0; i < 6; i++) {
+            Vacancy v = new Vacancy("Facet" + i, "desc");
+            v.setOrganizationId(1L);
+            v.setSalary(60000 * i);
+            v.setCity(i < 4 ? "Omsk" : null);
+            vacancyRepository.save(v);
+        }
+
+        var facets = vacancyService.getVacancyFacets(new VacancyFilter());
+        assertEquals(Long.valueOf(4), facets.getCities().get("Omsk"));
+        assertEquals(Long.valueOf(1), facets.getCities().get("Moscow"));
+        assertEquals(Long.valueOf(1), facets.getSalaryBuckets().get("0-50000"));
+        assertEquals(Long.valueOf(2), facets.getSalaryBuckets().get("100000-150000"));
+        assertEquals(Long.valueOf(2), facets.getSalaryBuckets().get("200000+"));
+
+        VacancyFilter filter = new VacancyFilter();
+        filter.setCity("Moscow");
+        facets = vacancyService.getVacancyFacets(filter);
+        assertEquals(1, facets.getCities().size());
+        assertEquals(Long.valueOf(1), facets.getSalaryBuckets().get("100000-150000"));
+    }
+
+    @Test
+    void testExportVacancies_WritesOneLinePerVacancyInIdOrder() throws IOException {
+        for (int i = 0; i < 600; i++) {
+            Vacancy v = new Vacancy("Export" + i, "desc");
+            v.setOrganizationId(4L);
+            vacancyRepository.save(v);
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        vacancyService.exportVacancies(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(601, lines.length);
+        assertTrue(lines[0].contains("\"id\":" + testVacancy.getId()));
+        assertTrue(lines[600].contains("Export599"));
+    }
+
     @Test
     void testUpdateVacancy_NotExistingVacancyThrows() {
         Vacancy upd = new Vacancy("X", "Y");
         upd.setOrganizationId(1L);
         RequestException ex = assertThrows(RequestException.class, () -> {
-            vacancyService.updateVacancy(999999L, upd);
+            vacancyService.updateVacancy(999999L, upd, null);
         });
         assertEquals(HttpStatus.NOT_FOUND, ex.code);
         assertEquals("Вакансия не найдена", ex.getMessage());
@@ -195,17 +404,34 @@ class VacancyServiceTest {
         Long vacId = testVacancy.getId();
         upd.setOrganizationId(200L);
         RequestException ex = assertThrows(RequestException.class, () -> {
-            vacancyService.updateVacancy(vacId, upd);
+            vacancyService.updateVacancy(vacId, upd, null);
         });
         assertEquals(HttpStatus.NOT_FOUND, ex.code);
         assertEquals("Организация не найдена", ex.getMessage());
     }
 
+    @Test
+    void testUpdateVacancy_ExpectedVersion() {
+        long id = testVacancy.getId();
+        Vacancy upd = new Vacancy("Versioned", "desc");
+        upd.setOrganizationId(1L);
+
+        // any of the listed versions may match
+        Vacancy first = vacancyService.updateVacancy(id, upd,
+                Set.of(testVacancy.getVersion() + 5, testVacancy.getVersion()));
+        assertEquals(testVacancy.getVersion() + 1, first.getVersion());
+
+        RequestException ex = assertThrows(RequestException.class,
+                () -> vacancyService.updateVacancy(id, upd, Set.of(testVacancy.getVersion())));
+        assertEquals(HttpStatus.PRECONDITION_FAILED, ex.code);
+        assertEquals(first.getVersion(), vacancyService.getVacancyById(id).getVersion());
+    }
+
     @Test
     void testGetVacanciesByOrganization_Empty() {
-        var list = vacancyService.getVacanciesByOrganization(9999L);
-        assertNotNull(list);
-        assertTrue(list.isEmpty());
+        var slice = vacancyService.getVacanciesByOrganization(9999L, null, 50);
+        assertNotNull(slice);
+        assertTrue(slice.isEmpty());
     }
 
     @Test
@@ -226,6 +452,61 @@ class VacancyServiceTest {
         assertEquals(testVacancy.getCity(), found.getCity());
     }
 
+    @Test
+    void testGetVacancyById_CachedAndEvicted() {
+        long id = testVacancy.getId();
+        assertEquals("Java Developer", vacancyService.getVacancyById(id).getTitle());
+        // put by the load itself, before the next miss for the id could start another query
+        assertNotNull(cacheManager.getCache(VacancyServiceImpl.VACANCY_CACHE).get(id));
+
+        Vacancy updated = new Vacancy("Cached", "desc");
+        updated.setOrganizationId(1L);
+        vacancyService.updateVacancy(id, updated, null);
+        assertEquals("Cached", vacancyService.getVacancyById(id).getTitle());
+
+        vacancyService.deleteVacancy(id);
+        assertThrows(RequestException.class, () -> vacancyService.getVacancyById(id));
+    }
+
+    @Test
+    void testGetVacancyById_OneStatPerLookup() {
+        long id = testVacancy.getId();
+        var cache = ((CaffeineCache) cacheManager.getCache(VacancyServiceImpl.VACANCY_CACHE)).getNativeCache();
+        Timer loads = meterRegistry.get("singleflight.load.duration")
+                .tag("name", VacancyServiceImpl.VACANCY_CACHE).timer();
+        CacheStats before = cache.stats();
+        long loadsBefore = loads.count();
+
+        vacancyService.getVacancyById(id);
+        vacancyService.getVacancyById(id);
+
+        CacheStats stats = cache.stats().minus(before);
+        assertEquals(1, stats.missCount());
+        assertEquals(1, stats.hitCount());
+        assertEquals(loadsBefore + 1, loads.count());
+    }
+
+    @Test
+    void testGetVacanciesByIds_RequestOrderWithoutMissing() {
+        Vacancy another = new Vacancy("QA", "desc");
+        another.setOrganizationId(1L);
+        another = vacancyRepository.save(another);
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        List<Vacancy> found = vacancyService.getVacanciesByIds(
+                List.of(another.getId(), 987654321L, testVacancy.getId(), another.getId()));
+        assertEquals(List.of(another.getId(), testVacancy.getId()), found.stream().map(Vacancy::getId).toList());
+        assertTrue(stats.getPrepareStatementCount() <= 1);
+    }
+
+    @Test
+    void testGetVacanciesByIds_TooManyIdsThrows() {
+        List<Long> ids = LongStream.rangeClosed(1, VacancyServiceImpl.MAX_BATCH_SIZE + 1).boxed().toList();
+        RequestException e = assertThrows(RequestException.class, () -> vacancyService.getVacanciesByIds(ids));
+        assertEquals(HttpStatus.BAD_REQUEST, e.code);
+    }
+
     @Test
     void testCreateVacancy() {
         Vacancy newVacancy = new Vacancy("QA Engineer", "Test software");
@@ -247,6 +528,23 @@ class VacancyServiceTest {
         assertEquals("QA Engineer", fromDb.getTitle());
     }
 
+    @Test
+    void testCreateVacancy_OrganizationLookupsAreCached() {
+        for (int i = 0; i < 5; i++) {
+            Vacancy v = new Vacancy("Burst" + i, "desc");
+            v.setOrganizationId(42L);
+            vacancyService.createVacancy(v);
+        }
+        verify(organizationClient, times(1)).getOrganizationById(42L);
+
+        for (int i = 0; i < 3; i++) {
+            Vacancy v = new Vacancy("Unknown" + i, "desc");
+            v.setOrganizationId(142L);
+            assertThrows(RequestException.class, () -> vacancyService.createVacancy(v));
+        }
+        verify(organizationClient, times(1)).getOrganizationById(142L);
+    }
+
     @Test
     void testCreateVacancy_NotExistingOrganizationThrows() {
         Vacancy newVacancy = new Vacancy("QA Engineer", "Test software");